@@ -1,16 +1,34 @@
+import org.jetbrains.intellij.platform.gradle.TestFrameworkType
+
 plugins {
     id("java")
     id("org.jetbrains.intellij.platform") version "2.10.5"
 }
 
 group = "com.cythonfix"
-version = "0.3.0"
+version = "0.4.0"
 
 // Use local PyCharm for faster local dev, download for CI
 val pycharmLocalPath = providers.gradleProperty("pycharmLocalPath").orNull
 val useLocalPycharm = pycharmLocalPath != null && file(pycharmLocalPath).exists()
         && System.getenv("CI") == null
 
+// Performance regression tests: a separate source set that runs highlighting and reformat on
+// realistic Cython fixtures and compares against stored baselines. Baselines are machine
+// specific, so the suite is only wired into `check` when building against a local PyCharm.
+sourceSets {
+    create("perfTest") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+configurations {
+    named("perfTestImplementation") { extendsFrom(configurations.testImplementation.get()) }
+    named("perfTestCompileOnly") { extendsFrom(configurations.testCompileOnly.get()) }
+    named("perfTestRuntimeOnly") { extendsFrom(configurations.testRuntimeOnly.get()) }
+}
+
 repositories {
     mavenCentral()
     intellijPlatform {
@@ -27,6 +45,30 @@ dependencies {
         }
         bundledPlugin("PythonCore")
         bundledPlugin("Pythonid")
+        testFramework(TestFrameworkType.Platform)
+    }
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.opentest4j:opentest4j:1.3.0")
+}
+
+val perfTest by intellijPlatformTesting.testIde.registering {
+    if (useLocalPycharm) {
+        localPath.set(file(pycharmLocalPath!!))
+    }
+    task {
+        val perfTestSourceSet = sourceSets["perfTest"]
+        description = "Runs highlighting and reformat performance tests against stored baselines."
+        group = "verification"
+        testClassesDirs = perfTestSourceSet.output.classesDirs
+        classpath = perfTestSourceSet.runtimeClasspath
+        // -PperfTolerance=0.25 allows 25% over baseline; -PperfRecord rewrites the baselines
+        systemProperty("cython.perf.baselines",
+            file("src/perfTest/resources/perf-baselines.properties").absolutePath)
+        systemProperty("cython.perf.tolerance",
+            providers.gradleProperty("perfTolerance").getOrElse("0.25"))
+        systemProperty("cython.perf.record",
+            providers.gradleProperty("perfRecord").isPresent.toString())
+        outputs.upToDateWhen { false }
     }
 }
 
@@ -50,4 +92,11 @@ tasks {
     publishPlugin {
         token.set(System.getenv("PUBLISH_TOKEN"))
     }
+
+    check {
+        // Baselines are machine specific, so only the reference machine opts in with -PperfGate
+        if (useLocalPycharm && providers.gradleProperty("perfGate").isPresent) {
+            dependsOn(perfTest)
+        }
+    }
 }
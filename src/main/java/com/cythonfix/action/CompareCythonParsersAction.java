@@ -0,0 +1,156 @@
+package com.cythonfix.action;
+
+import com.cythonfix.index.CythonFileSummaryIndex;
+import com.cythonfix.parser.CythonParseTreeDiff;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.impl.LoadTextUtil;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Parses every Cython file in the selection (or the whole project) with both the fixed and the
+ * stock parser, and writes a report of tree divergences and per-file parse times to
+ * {@code cython-parse-diff.txt} in the log directory.
+ */
+public class CompareCythonParsersAction extends AnAction {
+
+    private static final Logger LOG = Logger.getInstance(CompareCythonParsersAction.class);
+
+    private record FileReport(@NotNull String path, @NotNull CythonParseTreeDiff.Result result, @NotNull String details) {
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+        VirtualFile[] selection = e.getData(CommonDataKeys.VIRTUAL_FILE_ARRAY);
+
+        new Task.Backgroundable(project, "Comparing Cython parse trees", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                List<VirtualFile> files = ReadAction.compute(() -> collectFiles(project, selection));
+                ConcurrentLinkedQueue<FileReport> reports = new ConcurrentLinkedQueue<>();
+                JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, indicator, file -> {
+                    reports.add(compare(project, file));
+                    return true;
+                });
+                Path reportFile = writeReport(new ArrayList<>(reports));
+                if (reportFile != null) {
+                    ApplicationManager.getApplication().invokeLater(() -> openReport(project, reportFile));
+                }
+            }
+        }.queue();
+    }
+
+    @NotNull
+    private static List<VirtualFile> collectFiles(@NotNull Project project, @Nullable VirtualFile[] selection) {
+        List<VirtualFile> files = new ArrayList<>();
+        if (selection != null && selection.length > 0) {
+            for (VirtualFile root : selection) {
+                VfsUtilCore.iterateChildrenRecursively(root, null, file -> {
+                    if (!file.isDirectory() && CythonFileSummaryIndex.CYTHON_EXTENSIONS.contains(file.getExtension())) files.add(file);
+                    return true;
+                });
+            }
+        } else {
+            GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            for (String extension : CythonFileSummaryIndex.CYTHON_EXTENSIONS) {
+                files.addAll(FilenameIndex.getAllFilesByExt(project, extension, scope));
+            }
+        }
+        return files;
+    }
+
+    @NotNull
+    private static FileReport compare(@NotNull Project project, @NotNull VirtualFile file) {
+        CharSequence text = LoadTextUtil.loadText(file);
+        CythonParseTreeDiff.Result result = ReadAction.compute(() -> CythonParseTreeDiff.compare(project, text));
+
+        StringBuilder details = new StringBuilder();
+        for (CythonParseTreeDiff.Divergence divergence : result.divergences()) {
+            if (divergence.known()) continue;
+            int line = StringUtil.offsetToLineNumber(text, divergence.offset());
+            int column = divergence.offset() - StringUtil.lineColToOffset(text, line, 0);
+            details.append(String.format("    %d:%d  fixed %s  stock %s%n",
+                    line + 1, column + 1, divergence.fixedType(), divergence.stockType()));
+        }
+        return new FileReport(file.getPath(), result, details.toString());
+    }
+
+    @Nullable
+    private static Path writeReport(@NotNull List<FileReport> reports) {
+        reports.sort(Comparator.comparing((FileReport r) -> r.result().unexpectedCount() == 0)
+                .thenComparing(FileReport::path));
+
+        long fixedTotal = reports.stream().mapToLong(r -> r.result().fixedNanos()).sum();
+        long stockTotal = reports.stream().mapToLong(r -> r.result().stockNanos()).sum();
+        long divergent = reports.stream().filter(r -> r.result().unexpectedCount() > 0).count();
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Cython parse tree comparison: %d files, %d with unexpected divergences%n",
+                reports.size(), divergent));
+        text.append(String.format("Total parse time: fixed %.1f ms, stock %.1f ms%n%n",
+                fixedTotal / 1e6, stockTotal / 1e6));
+        for (FileReport report : reports) {
+            CythonParseTreeDiff.Result result = report.result();
+            long unexpected = result.unexpectedCount();
+            text.append(String.format("%s  fixed %.2f ms  stock %.2f ms  known %d  unexpected %d%n",
+                    report.path(), result.fixedNanos() / 1e6, result.stockNanos() / 1e6,
+                    result.divergences().size() - unexpected, unexpected));
+            text.append(report.details());
+        }
+
+        Path reportFile = Path.of(PathManager.getLogPath(), "cython-parse-diff.txt");
+        try {
+            Files.writeString(reportFile, text);
+            return reportFile;
+        } catch (IOException ex) {
+            LOG.warn("Failed to write Cython parse tree report", ex);
+            return null;
+        }
+    }
+
+    private static void openReport(@NotNull Project project, @NotNull Path reportFile) {
+        if (project.isDisposed()) return;
+        VirtualFile file = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(reportFile);
+        if (file != null) {
+            FileEditorManager.getInstance(project).openFile(file, true);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.cythonfix.action;
+
+import com.cythonfix.deps.CythonDependencyGraph;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the include and cimport dependencies of the project's Cython files to a JSON file, or
+ * to a Makefile depfile when the chosen file ends in {@code .d} or {@code .mk}. The same export
+ * runs headlessly through {@link com.cythonfix.deps.CythonDependencyGraphStarter}.
+ */
+public class ExportCythonDependencyGraphAction extends AnAction {
+
+    private static final Logger LOG = Logger.getInstance(ExportCythonDependencyGraphAction.class);
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+
+        FileSaverDescriptor descriptor = new FileSaverDescriptor(
+                "Export Cython Dependency Graph", "Choose a .json file, or .d/.mk for a Makefile depfile", "json", "d", "mk");
+        VirtualFile baseDir = ProjectUtil.guessProjectDir(project);
+        VirtualFileWrapper target = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project)
+                .save(baseDir, "cython-deps.json");
+        if (target == null) return;
+        Path output = target.getFile().toPath();
+
+        new Task.Backgroundable(project, "Exporting Cython dependency graph", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                CythonDependencyGraph graph = CythonDependencyGraph.compute(project, baseDir, indicator);
+                String name = output.getFileName().toString();
+                String text = name.endsWith(".d") || name.endsWith(".mk") ? graph.toMakefile() : graph.toJson();
+                try {
+                    Files.writeString(output, text);
+                } catch (IOException ex) {
+                    LOG.warn("Failed to write Cython dependency graph", ex);
+                    ApplicationManager.getApplication().invokeLater(() -> Messages.showErrorDialog(
+                            project, "Cannot write " + output + ": " + ex.getMessage(), "Export Cython Dependency Graph"));
+                    return;
+                }
+                ApplicationManager.getApplication().invokeLater(() -> openFile(project, output));
+            }
+        }.queue();
+    }
+
+    private static void openFile(@NotNull Project project, @NotNull Path path) {
+        if (project.isDisposed()) return;
+        VirtualFile file = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(path);
+        if (file != null) {
+            FileEditorManager.getInstance(project).openFile(file, true);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.cythonfix.action;
+
+import com.cythonfix.cache.BoundedCache;
+import com.cythonfix.cache.CythonFixCaches;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Shows size, hit, miss and eviction counts of the plugin's caches.
+ */
+public class ShowCythonCacheStatisticsAction extends AnAction implements DumbAware {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        StringBuilder text = new StringBuilder();
+        for (BoundedCache.Stats stats : CythonFixCaches.getInstance().getStatistics()) {
+            long lookups = stats.hits() + stats.misses();
+            double hitRate = lookups == 0 ? 0 : 100.0 * stats.hits() / lookups;
+            text.append(String.format("%s: %d/%d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions%n",
+                    stats.name(), stats.size(), stats.maxSize(), stats.hits(), stats.misses(), hitRate,
+                    stats.evictions()));
+        }
+        if (text.isEmpty()) {
+            text.append("No caches in use");
+        }
+        Messages.showInfoMessage(e.getProject(), text.toString(), "Cython-Fix Cache Statistics");
+    }
+}
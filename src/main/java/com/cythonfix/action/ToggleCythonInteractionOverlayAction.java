@@ -0,0 +1,29 @@
+package com.cythonfix.action;
+
+import com.cythonfix.overlay.CythonInteractionOverlay;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.DumbAware;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Turns the Python-interaction gutter overlay on and off for all Cython editors.
+ */
+public class ToggleCythonInteractionOverlayAction extends ToggleAction implements DumbAware {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        return CythonInteractionOverlay.isEnabled();
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        CythonInteractionOverlay.setEnabled(state);
+    }
+}
@@ -0,0 +1,187 @@
+package com.cythonfix.analysis;
+
+import com.cythonfix.psi.CythonCimports;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyArgumentList;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyDecorator;
+import com.jetbrains.python.psi.PyDecoratorList;
+import com.jetbrains.python.psi.PyDecoratable;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.PyStatementList;
+import com.jetbrains.python.psi.PyWithItem;
+import com.jetbrains.python.psi.PyWithStatement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The effective {@code boundscheck}, {@code wraparound} and {@code initializedcheck} compiler
+ * directives at a point in a Cython file.
+ *
+ * Directives come from {@code # cython: boundscheck=False} comments before the first statement,
+ * {@code @cython.boundscheck(False)} decorators on enclosing functions and classes, and
+ * {@code with cython.boundscheck(False):} blocks, innermost winning. The module may be
+ * cimported under another name ({@code cimport cython as cy}), and directives cimported from it
+ * ({@code from cython cimport boundscheck}) may be used unqualified. The file header and each
+ * scope's decorators are cached on the file and the scope owner; {@code with} blocks are read on
+ * the way up from the element.
+ */
+public record CythonDirectives(boolean boundscheck, boolean wraparound, boolean initializedcheck) {
+
+    public static final CythonDirectives DEFAULT = new CythonDirectives(true, true, true);
+
+    private static final String BOUNDSCHECK = "boundscheck";
+    private static final String WRAPAROUND = "wraparound";
+    private static final String INITIALIZEDCHECK = "initializedcheck";
+    private static final String CYTHON_MODULE = "cython";
+
+    private static final Pattern HEADER = Pattern.compile("#\\s*cython\\s*:(.*)");
+    private static final Pattern ASSIGNMENT = Pattern.compile("\\s*(\\w+)\\s*=\\s*(\\w+)\\s*");
+
+    /** Returns true if indexing a memoryview here is compiled with any runtime check. */
+    public boolean hasIndexChecks() {
+        return boundscheck || wraparound || initializedcheck;
+    }
+
+    @NotNull
+    public static CythonDirectives at(@NotNull PsiElement element) {
+        List<PyWithStatement> withs = new ArrayList<>();
+        PsiElement child = element;
+        for (PsiElement parent = element.getParent(); parent != null && !(parent instanceof ScopeOwner);
+             child = parent, parent = parent.getParent()) {
+            if (parent instanceof PyWithStatement with && child instanceof PyStatementList) withs.add(with);
+        }
+
+        ScopeOwner owner = ScopeUtil.getScopeOwner(element);
+        CythonDirectives directives = owner != null ? ofScope(owner) : DEFAULT;
+        for (int i = withs.size() - 1; i >= 0; i--) {
+            for (PyWithItem item : withs.get(i).getWithItems()) {
+                directives = directives.apply(item.getExpression());
+            }
+        }
+        return directives;
+    }
+
+    /** Returns the directives in effect for the body of a function, class or file. */
+    @NotNull
+    public static CythonDirectives ofScope(@NotNull ScopeOwner owner) {
+        if (owner instanceof PsiFile file) {
+            return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                    readHeader(file), file));
+        }
+        return CachedValuesManager.getCachedValue(owner, () -> CachedValueProvider.Result.create(
+                computeScope(owner), owner.getContainingFile()));
+    }
+
+    @NotNull
+    private static CythonDirectives computeScope(@NotNull ScopeOwner owner) {
+        ScopeOwner outer = ScopeUtil.getScopeOwner(owner);
+        CythonDirectives directives = outer != null ? ofScope(outer) : DEFAULT;
+        PyDecoratorList decorators = owner instanceof PyDecoratable decoratable ? decoratable.getDecoratorList() : null;
+        if (decorators != null) {
+            for (PyDecorator decorator : decorators.getDecorators()) {
+                directives = directives.apply(decorator);
+            }
+        }
+        return directives;
+    }
+
+    /**
+     * Reads {@code # cython:} comments above the first line of code. Later comments override
+     * earlier ones, as in the compiler. Only the header lines of the file contents are scanned.
+     */
+    @NotNull
+    private static CythonDirectives readHeader(@NotNull PsiFile file) {
+        CythonDirectives directives = DEFAULT;
+        CharSequence text = file.getViewProvider().getContents();
+        int lineStart = 0;
+        while (lineStart < text.length()) {
+            int lineEnd = StringUtil.indexOf(text, '\n', lineStart);
+            if (lineEnd < 0) lineEnd = text.length();
+            String trimmed = text.subSequence(lineStart, lineEnd).toString().trim();
+            lineStart = lineEnd + 1;
+            if (trimmed.isEmpty()) continue;
+            if (!trimmed.startsWith("#")) break;
+            Matcher header = HEADER.matcher(trimmed);
+            if (!header.matches()) continue;
+            for (String item : header.group(1).split(",")) {
+                Matcher assignment = ASSIGNMENT.matcher(item);
+                if (assignment.matches()) {
+                    directives = directives.with(assignment.group(1), parseBoolean(assignment.group(2)));
+                }
+            }
+        }
+        return directives;
+    }
+
+    /**
+     * Applies a {@code cython.boundscheck(False)}-style call, as a decorator or with item.
+     * Anything else leaves the directives unchanged.
+     */
+    @NotNull
+    private CythonDirectives apply(@Nullable PsiElement expression) {
+        if (!(expression instanceof PyCallExpression call)) return this;
+        if (!(call.getCallee() instanceof PyReferenceExpression callee)) return this;
+        String name = getDirectiveName(callee);
+        if (name == null) return this;
+
+        PyArgumentList arguments = call.getArgumentList();
+        PyExpression[] values = arguments != null ? arguments.getArguments() : PyExpression.EMPTY_ARRAY;
+        if (values.length != 1) return this;
+        Boolean value = parseBoolean(values[0].getText());
+        return value != null ? with(name, value) : this;
+    }
+
+    /**
+     * Returns the directive a callee names: {@code cython.boundscheck}, {@code cy.boundscheck}
+     * after {@code cimport cython as cy}, or {@code boundscheck} cimported from {@code cython}.
+     */
+    @Nullable
+    private static String getDirectiveName(@NotNull PyReferenceExpression callee) {
+        String name = callee.getReferencedName();
+        if (name == null) return null;
+        CythonCimports cimports = CythonCimports.of(callee.getContainingFile());
+
+        PyExpression qualifier = callee.getQualifier();
+        if (qualifier == null) {
+            CythonCimports.ImportedName imported = cimports.getName(name);
+            return imported != null && CYTHON_MODULE.equals(imported.module()) ? imported.name() : null;
+        }
+        if (!(qualifier instanceof PyReferenceExpression module) || module.isQualified()) return null;
+        String moduleName = module.getReferencedName();
+        if (moduleName == null) return null;
+        return CYTHON_MODULE.equals(moduleName) || CYTHON_MODULE.equals(cimports.getModule(moduleName)) ? name : null;
+    }
+
+    @NotNull
+    private CythonDirectives with(@NotNull String name, @Nullable Boolean value) {
+        if (value == null) return this;
+        return switch (name) {
+            case BOUNDSCHECK -> new CythonDirectives(value, wraparound, initializedcheck);
+            case WRAPAROUND -> new CythonDirectives(boundscheck, value, initializedcheck);
+            case INITIALIZEDCHECK -> new CythonDirectives(boundscheck, wraparound, value);
+            default -> this;
+        };
+    }
+
+    @Nullable
+    private static Boolean parseBoolean(@NotNull String text) {
+        return switch (text) {
+            case "True" -> Boolean.TRUE;
+            case "False" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.cythonfix.analysis;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.python.psi.PyArgumentList;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyClass;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyForStatement;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyKeywordArgument;
+import com.jetbrains.python.psi.PyLambdaExpression;
+import com.jetbrains.python.psi.PyStatementList;
+import com.jetbrains.python.psi.PyWithItem;
+import com.jetbrains.python.psi.PyWithStatement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Per-function GIL summaries and nogil region lookup.
+ *
+ * Whether a Cython function can be called without the GIL is fixed by its signature: a
+ * {@code nogil} marker (on the function or on its {@code cdef extern from ... nogil:} block)
+ * or {@code with gil}. Bodies never change a caller's requirement, so a summary is read from the
+ * header once and cached on the function until its own file changes; call chains across files
+ * cost one cached lookup per resolved callee.
+ */
+public final class CythonGilSummaries {
+
+    public enum Requirement {
+        /** def functions, Python code and cdef functions without nogil. */
+        REQUIRES_GIL,
+        /** Declared nogil, directly or through its extern block. */
+        NOGIL,
+        /** Declared {@code with gil}: callable without the GIL, acquires it on entry. */
+        ACQUIRES_GIL;
+
+        public boolean isCallableWithoutGil() {
+            return this != REQUIRES_GIL;
+        }
+    }
+
+    private static final String NOGIL = "nogil";
+    private static final String GIL = "gil";
+    private static final String WITH = "with";
+    private static final String PRANGE = "prange";
+
+    private CythonGilSummaries() {
+    }
+
+    /**
+     * Returns the GIL requirement for calling the function.
+     */
+    @NotNull
+    public static Requirement getRequirement(@NotNull PyFunction function) {
+        return CachedValuesManager.getCachedValue(function, () -> CachedValueProvider.Result.create(
+                computeRequirement(function), function.getContainingFile()));
+    }
+
+    /**
+     * Returns true if the element runs without the GIL: inside {@code with nogil:}, the body of
+     * a nogil function, or a {@code prange(..., nogil=True)} loop, and not inside a nested
+     * {@code with gil:} block.
+     */
+    public static boolean isInNogilRegion(@NotNull PsiElement element) {
+        PsiElement child = element;
+        for (PsiElement parent = element.getParent(); parent != null && !(parent instanceof PsiFile);
+             child = parent, parent = parent.getParent()) {
+            if (parent instanceof PyWithStatement with && child instanceof PyStatementList) {
+                String gil = getGilItem(with);
+                if (NOGIL.equals(gil)) return true;
+                if (GIL.equals(gil)) return false;
+            } else if (parent instanceof PyForStatement loop && isNogilPrange(loop)
+                    && PsiTreeUtil.isAncestor(loop.getForPart().getStatementList(), element, false)) {
+                return true;
+            } else if (parent instanceof PyFunction function) {
+                return child == function.getStatementList() && getRequirement(function) == Requirement.NOGIL;
+            } else if (parent instanceof PyClass || parent instanceof PyLambdaExpression) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the loop iterates over {@code prange(..., nogil=True)}.
+     */
+    public static boolean isNogilPrange(@NotNull PyForStatement loop) {
+        if (!(loop.getForPart().getSource() instanceof PyCallExpression call)) return false;
+        PyExpression callee = call.getCallee();
+        if (callee == null || !PRANGE.equals(callee.getName())) return false;
+        PyArgumentList arguments = call.getArgumentList();
+        PyKeywordArgument nogil = arguments != null ? arguments.getKeywordArgument(NOGIL) : null;
+        PyExpression value = nogil != null ? nogil.getValueExpression() : null;
+        return value != null && "True".equals(value.getText());
+    }
+
+    /**
+     * Returns true for {@code with gil:} statements, whose body may use Python objects.
+     */
+    public static boolean isWithGil(@NotNull PyWithStatement with) {
+        return GIL.equals(getGilItem(with));
+    }
+
+    @Nullable
+    private static String getGilItem(@NotNull PyWithStatement with) {
+        for (PyWithItem item : with.getWithItems()) {
+            String text = item.getExpression().getText();
+            if (NOGIL.equals(text) || GIL.equals(text)) return text;
+        }
+        return null;
+    }
+
+    @NotNull
+    private static Requirement computeRequirement(@NotNull PyFunction function) {
+        if (!CythonPsiUtil.isInCythonFile(function)) return Requirement.REQUIRES_GIL;
+        // Extern declarations such as `void f(char *) nogil` have no cdef keyword of their own
+        if (!CythonPsiUtil.isCFunction(function) && CythonPsiUtil.findExternBlock(function) == null) {
+            return Requirement.REQUIRES_GIL;
+        }
+
+        List<String> header = CythonPsiUtil.getHeaderWords(function);
+        if (header.contains(NOGIL)) return Requirement.NOGIL;
+        int with = header.indexOf(WITH);
+        if (with >= 0 && with + 1 < header.size() && GIL.equals(header.get(with + 1))) return Requirement.ACQUIRES_GIL;
+        return isInNogilExternBlock(function) ? Requirement.NOGIL : Requirement.REQUIRES_GIL;
+    }
+
+    /**
+     * Returns true for declarations inside {@code cdef extern from "header.h" nogil:}.
+     */
+    private static boolean isInNogilExternBlock(@NotNull PyFunction function) {
+        PsiElement block = CythonPsiUtil.findExternBlock(function);
+        if (block == null) return false;
+        String text = block.getText();
+        int colon = text.indexOf(':');
+        String header = colon >= 0 ? text.substring(0, colon) : text;
+        return List.of(header.split("\\s+")).contains(NOGIL);
+    }
+}
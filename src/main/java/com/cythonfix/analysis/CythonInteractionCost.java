@@ -0,0 +1,275 @@
+package com.cythonfix.analysis;
+
+import com.cythonfix.cache.CythonProjectCaches;
+import com.cythonfix.psi.CythonCimports;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.type.CythonCTypes;
+import com.cythonfix.type.CythonDeclaredType;
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.QualifiedName;
+import com.intellij.python.pro.cython.psi.CythonNamedElement;
+import com.jetbrains.python.codeInsight.controlflow.ControlFlowCache;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyClass;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyRecursiveElementVisitor;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.resolve.PyResolveContext;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates, per line of a function, how much the code will go through the Python C-API, on
+ * the 0-4 scale of the {@code score-N} classes in {@code cython -a} reports.
+ *
+ * Signals, from the Cython declarations alone:
+ * <ul>
+ *   <li>calls to def functions, Python classes, Python builtins and unresolved names (2);</li>
+ *   <li>attribute access on names without a C type (1);</li>
+ *   <li>untyped locals and module globals (1);</li>
+ *   <li>the signature line of def functions, for argument unpacking (2).</li>
+ * </ul>
+ * Scores are cached per function, keyed on the text of the function and its enclosing functions,
+ * the declarations of its enclosing classes and module, and the files of callees resolved into
+ * other files. Typing in one function only rescores that function. A name that starts resolving
+ * into another file is only noticed once the function, its declarations or the VFS structure
+ * change.
+ */
+public final class CythonInteractionCost {
+
+    public static final int MAX_SCORE = 4;
+
+    private static final int PYTHON_CALL = 2;
+    private static final int PYTHON_LOOKUP = 1;
+    private static final int DEF_SIGNATURE = 2;
+
+    /** Builtins that Cython compiles to C when their arguments are C values. */
+    private static final Set<String> C_BUILTINS = Set.of(
+            "range", "prange", "sizeof", "typeof", "address", "abs", "min", "max", "cython", "len"
+    );
+
+    private static final Key<Scores> SCORES = Key.create("cython.fix.interaction.scores");
+
+    /** Scores by line relative to the function's first line, with what they were computed from. */
+    private record Scores(int key, @NotNull CythonProjectCaches.Stamp targets, @NotNull Map<Integer, Integer> lines) {
+    }
+
+    private CythonInteractionCost() {
+    }
+
+    /**
+     * Returns the non-zero scores of the function's own lines by document line number. Nested
+     * functions and classes are scored separately.
+     */
+    @NotNull
+    public static Map<Integer, Integer> getLineScores(@NotNull PyFunction function, @NotNull Document document) {
+        PsiFile file = function.getContainingFile();
+        int key = computeKey(function, file.getViewProvider().getContents());
+        Scores scores = function.getUserData(SCORES);
+        if (scores == null || scores.key() != key || !scores.targets().isUpToDate()) {
+            scores = computeScores(function, file, key);
+            function.putUserData(SCORES, scores);
+        }
+
+        int firstLine = document.getLineNumber(function.getTextRange().getStartOffset());
+        Map<Integer, Integer> lines = new HashMap<>(scores.lines().size());
+        scores.lines().forEach((line, score) -> lines.put(firstLine + line, score));
+        return lines;
+    }
+
+    /**
+     * Hashes the text the scores of a function depend on within its file: the function itself,
+     * enclosing functions, and the declarations of enclosing classes and the module, where only
+     * the headers of their other functions and classes count.
+     */
+    private static int computeKey(@NotNull PyFunction function, @NotNull CharSequence text) {
+        int key = hash(text, function.getTextRange());
+        for (ScopeOwner owner = ScopeUtil.getScopeOwner(function); owner != null; owner = ScopeUtil.getScopeOwner(owner)) {
+            if (owner instanceof PyFunction enclosing) {
+                key = 31 * key + hash(text, enclosing.getTextRange());
+            } else if (owner instanceof PyClass cls) {
+                key = 31 * key + hashDeclarations(cls.getStatementList(), text);
+            } else if (owner instanceof PyFile file) {
+                key = 31 * key + getModuleDeclarationsHash(file);
+                break;
+            }
+        }
+        return key;
+    }
+
+    private static int getModuleDeclarationsHash(@NotNull PyFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                hashDeclarations(file, file.getViewProvider().getContents()), file));
+    }
+
+    private static int hashDeclarations(@NotNull PsiElement container, @NotNull CharSequence text) {
+        int hash = 0;
+        for (PsiElement child : container.getChildren()) {
+            int start = child.getTextRange().getStartOffset();
+            if (child instanceof PyFunction function) {
+                hash = 31 * hash + hash(text, new TextRange(start, function.getStatementList().getTextOffset()));
+            } else if (child instanceof PyClass cls) {
+                hash = 31 * hash + hash(text, new TextRange(start, cls.getStatementList().getTextOffset()));
+                hash = 31 * hash + hashDeclarations(cls.getStatementList(), text);
+            } else {
+                hash = 31 * hash + hash(text, child.getTextRange());
+            }
+        }
+        return hash;
+    }
+
+    private static int hash(@NotNull CharSequence text, @NotNull TextRange range) {
+        return StringUtil.stringHashCode(text, range.getStartOffset(), range.getEndOffset());
+    }
+
+    @NotNull
+    private static Scores computeScores(@NotNull PyFunction function, @NotNull PsiFile file, int key) {
+        TypeEvalContext context = TypeEvalContext.codeAnalysis(function.getProject(), file);
+        CythonCimports cimports = CythonCimports.of(file);
+        CharSequence text = file.getViewProvider().getContents();
+        int firstLine = lineOf(text, function.getTextRange().getStartOffset());
+        Map<Integer, Integer> scores = new HashMap<>();
+        Set<PsiFile> targets = new HashSet<>();
+
+        if (!CythonPsiUtil.isCFunction(function)) {
+            add(scores, lineOf(text, function.getParameterList().getTextOffset()) - firstLine, DEF_SIGNATURE);
+        }
+
+        function.getStatementList().accept(new PyRecursiveElementVisitor() {
+            @Override
+            public void visitPyFunction(@NotNull PyFunction node) {
+            }
+
+            @Override
+            public void visitPyClass(@NotNull PyClass node) {
+            }
+
+            @Override
+            public void visitPyCallExpression(@NotNull PyCallExpression call) {
+                if (call.getCallee() instanceof PyReferenceExpression callee
+                        && isPythonCall(callee, cimports, context, file, targets)) {
+                    add(scores, lineOf(call), PYTHON_CALL);
+                }
+                super.visitPyCallExpression(call);
+            }
+
+            @Override
+            public void visitPyReferenceExpression(@NotNull PyReferenceExpression reference) {
+                if (isPythonLookup(reference, function, cimports)) {
+                    add(scores, lineOf(reference), PYTHON_LOOKUP);
+                }
+                super.visitPyReferenceExpression(reference);
+            }
+
+            private int lineOf(@NotNull PsiElement element) {
+                return CythonInteractionCost.lineOf(text, element.getTextRange().getStartOffset()) - firstLine;
+            }
+        });
+        return new Scores(key, CythonProjectCaches.Stamp.of(targets), Map.copyOf(scores));
+    }
+
+    private static int lineOf(@NotNull CharSequence text, int offset) {
+        return StringUtil.offsetToLineNumber(text, offset);
+    }
+
+    private static void add(@NotNull Map<Integer, Integer> scores, int line, int score) {
+        scores.merge(line, score, (a, b) -> Math.min(MAX_SCORE, a + b));
+    }
+
+    private static boolean isPythonCall(
+            @NotNull PyReferenceExpression callee,
+            @NotNull CythonCimports cimports,
+            @NotNull TypeEvalContext context,
+            @NotNull PsiFile file,
+            @NotNull Set<PsiFile> targets) {
+
+        String name = callee.getReferencedName();
+        if (name == null) return false;
+        if (isCimported(callee, name, cimports)) return false;
+        if (!callee.isQualified() && C_BUILTINS.contains(name)) return false;
+
+        PsiElement target = callee.getReference(PyResolveContext.defaultContext(context)).resolve();
+        PsiFile targetFile = target != null ? target.getContainingFile() : null;
+        if (targetFile != null && targetFile != file) {
+            targets.add(targetFile);
+        }
+        if (target instanceof PyFunction function) return !CythonPsiUtil.isCFunction(function);
+        return !(target instanceof CythonNamedElement);
+    }
+
+    /**
+     * Returns true for names looked up as Python objects: attribute access on a qualifier
+     * without a C type, and untyped locals or globals. Callees are scored as calls instead.
+     */
+    private static boolean isPythonLookup(
+            @NotNull PyReferenceExpression reference,
+            @NotNull PyFunction function,
+            @NotNull CythonCimports cimports) {
+
+        if (reference.getParent() instanceof PyCallExpression call && call.getCallee() == reference) return false;
+        String name = reference.getReferencedName();
+        if (name == null) return false;
+
+        PyExpression qualifier = reference.getQualifier();
+        if (qualifier != null) {
+            if (!(qualifier instanceof PyReferenceExpression qualifierReference)) return true;
+            if (isCimported(reference, name, cimports)) return false;
+            String qualifierName = qualifierReference.isQualified() ? null : qualifierReference.getReferencedName();
+            return qualifierName == null || !hasCType(qualifierName, function);
+        }
+
+        if (C_BUILTINS.contains(name) || cimports.getName(name) != null) return false;
+        if (hasCType(name, function)) return false;
+        if (ControlFlowCache.getScope(function).containsDeclaration(name)) return true;
+        // Module-level cdef variables are C globals; other globals go through the module dict
+        return !(function.getContainingFile() instanceof PyFile file)
+                || CythonDeclaredTypes.getDeclaredType(file, name) == null && !isDeclaredInModule(file, name);
+    }
+
+    private static boolean isDeclaredInModule(@NotNull PyFile file, @NotNull String name) {
+        PyFunction function = file.findTopLevelFunction(name);
+        return function != null && CythonPsiUtil.isCFunction(function);
+    }
+
+    /**
+     * Returns true if the name has a C type other than {@code object} in the function or one of
+     * its enclosing scopes.
+     */
+    private static boolean hasCType(@NotNull String name, @NotNull PyFunction function) {
+        for (ScopeOwner owner = function; owner != null; owner = ScopeUtil.getScopeOwner(owner)) {
+            CythonDeclaredType type = CythonDeclaredTypes.getDeclaredType(owner, name);
+            if (type != null) return CythonCTypes.classify(type) != CythonCTypes.Kind.OBJECT;
+            if (owner instanceof PyFile) break;
+        }
+        return false;
+    }
+
+    private static boolean isCimported(
+            @NotNull PyReferenceExpression reference,
+            @NotNull String name,
+            @NotNull CythonCimports cimports) {
+
+        PyExpression qualifier = reference.getQualifier();
+        if (qualifier == null) return cimports.getName(name) != null;
+        if (!(qualifier instanceof PyReferenceExpression qualifierReference)) return false;
+        QualifiedName qualifiedName = qualifierReference.asQualifiedName();
+        return qualifiedName != null && cimports.getModule(qualifiedName.toString()) != null;
+    }
+}
@@ -0,0 +1,266 @@
+package com.cythonfix.analysis;
+
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyAssignmentStatement;
+import com.jetbrains.python.psi.PyAugAssignmentStatement;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyClass;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyForStatement;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyLambdaExpression;
+import com.jetbrains.python.psi.PyRecursiveElementVisitor;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.PyStatement;
+import com.jetbrains.python.psi.PySubscriptionExpression;
+import com.jetbrains.python.psi.PyTargetExpression;
+import com.jetbrains.python.psi.PyWithStatement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classifies the variables of a {@code prange} loop body by Cython's rules, from the PSI alone.
+ *
+ * The loop target is the index; names assigned with {@code =} (including inner loop targets)
+ * are private to each thread and undefined at the start of an iteration; names only updated
+ * with an in-place operator ({@code s += x}) are reductions over that operator. Everything else
+ * is shared. The result also lists the problems Cython reports or that race at runtime, and is
+ * cached on the loop until its file changes. Names used only inside {@code with gil:} blocks of
+ * the body may hold Python objects.
+ */
+public final class CythonPrangeAnalysis {
+
+    public enum Kind { INDEX, PRIVATE, REDUCTION }
+
+    public record Variable(@NotNull String name, @NotNull Kind kind, @Nullable String operator,
+                           @NotNull PsiElement declaration) {
+    }
+
+    public record Problem(@NotNull PsiElement element, @NotNull String message) {
+    }
+
+    public record Result(@NotNull Map<String, Variable> variables, @NotNull List<Problem> problems) {
+
+        @NotNull
+        public List<Variable> getReductions() {
+            return variables.values().stream().filter(variable -> variable.kind() == Kind.REDUCTION).toList();
+        }
+    }
+
+    private static final String PRANGE = "prange";
+
+    /** In-place operators Cython turns into OpenMP reductions. */
+    private static final Set<String> REDUCTION_OPERATORS = Set.of("+", "*", "-", "&", "|", "^");
+
+    private CythonPrangeAnalysis() {
+    }
+
+    public static boolean isPrange(@NotNull PyForStatement loop) {
+        return loop.getForPart().getSource() instanceof PyCallExpression call
+                && call.getCallee() instanceof PyReferenceExpression callee
+                && PRANGE.equals(callee.getReferencedName());
+    }
+
+    /**
+     * Returns the analysis of a prange loop, or null if the loop does not iterate over
+     * {@code prange(...)}.
+     */
+    @Nullable
+    public static Result analyze(@NotNull PyForStatement loop) {
+        if (!isPrange(loop)) return null;
+        return CachedValuesManager.getCachedValue(loop, () -> CachedValueProvider.Result.create(
+                compute(loop), loop.getContainingFile()));
+    }
+
+    @NotNull
+    private static Result compute(@NotNull PyForStatement loop) {
+        BodyVisitor body = new BodyVisitor();
+        loop.getForPart().getStatementList().accept(body);
+
+        Map<String, Variable> variables = new LinkedHashMap<>();
+        List<Problem> problems = new ArrayList<>();
+        String index = null;
+        if (loop.getForPart().getTarget() instanceof PyTargetExpression target && target.getName() != null) {
+            index = target.getName();
+            variables.put(index, new Variable(index, Kind.INDEX, null, target));
+        }
+
+        for (Map.Entry<String, PyTargetExpression> entry : body.myAssignments.entrySet()) {
+            String name = entry.getKey();
+            if (name.equals(index)) {
+                problems.add(new Problem(entry.getValue(), "Loop index '" + name + "' is assigned inside the prange body"));
+                continue;
+            }
+            variables.put(name, new Variable(name, Kind.PRIVATE, null, entry.getValue()));
+
+            PyAugAssignmentStatement update = body.myUpdates.get(name);
+            if (update != null) {
+                problems.add(new Problem(update, "'" + name + "' is both assigned and updated in place; "
+                        + "Cython can't make it either private or a reduction"));
+            }
+            PyReferenceExpression read = body.myReads.get(name);
+            PyStatement assignment = PsiTreeUtil.getParentOfType(entry.getValue(), PyStatement.class);
+            if (read != null && assignment != null && read.getTextOffset() < assignment.getTextRange().getEndOffset()
+                    && !PsiTreeUtil.isAncestor(entry.getValue(), read, false)) {
+                problems.add(new Problem(read, "Private variable '" + name
+                        + "' is read before it is assigned in the iteration; its value is undefined"));
+            }
+        }
+
+        for (Map.Entry<String, PyAugAssignmentStatement> entry : body.myUpdates.entrySet()) {
+            String name = entry.getKey();
+            if (variables.containsKey(name)) continue;
+            if (body.myUnsupportedReductions.contains(name)) {
+                problems.add(new Problem(entry.getValue(), "In-place updates of '" + name
+                        + "' don't form a single supported reduction (+, *, -, &, |, ^)"));
+                continue;
+            }
+            variables.put(name, new Variable(name, Kind.REDUCTION, body.myOperators.get(name), entry.getValue()));
+
+            PyReferenceExpression read = body.myReads.get(name);
+            if (read != null) {
+                problems.add(new Problem(read, "Reduction variable '" + name
+                        + "' is read inside the loop; its value is only defined after the loop"));
+            }
+        }
+
+        ScopeOwner owner = ScopeUtil.getScopeOwner(loop);
+        if (owner != null) {
+            for (Variable variable : variables.values()) {
+                if (variable.kind() == Kind.INDEX || !body.myNogilUses.contains(variable.name())) continue;
+                if (CythonDeclaredTypes.findDeclaredType(owner, variable.name()) == null) {
+                    problems.add(new Problem(variable.declaration(), "'" + variable.name()
+                            + "' has no C type and may be a Python object, which can't be used without the GIL"));
+                }
+            }
+        }
+
+        for (PsiElement write : body.mySharedWrites) {
+            if (write instanceof PySubscriptionExpression subscription && dependsOnPrivate(subscription, variables)) {
+                continue;
+            }
+            problems.add(new Problem(write, "Write to shared '" + write.getText()
+                    + "' does not depend on the loop index; iterations race"));
+        }
+        return new Result(Map.copyOf(variables), List.copyOf(problems));
+    }
+
+    /** Returns true if the subscript's index mentions the loop index or a private variable. */
+    private static boolean dependsOnPrivate(@NotNull PySubscriptionExpression subscription,
+                                            @NotNull Map<String, Variable> variables) {
+        PyExpression index = subscription.getIndexExpression();
+        if (index == null) return false;
+        for (PyReferenceExpression reference : PsiTreeUtil.collectElementsOfType(index, PyReferenceExpression.class)) {
+            Variable variable = reference.isQualified() ? null : variables.get(reference.getReferencedName());
+            if (variable != null && variable.kind() != Kind.REDUCTION) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Collects first assignments, in-place updates, reads and shared writes of the loop body.
+     * Nested functions, classes and lambdas have their own scope and are skipped.
+     */
+    private static final class BodyVisitor extends PyRecursiveElementVisitor {
+
+        private final Map<String, PyTargetExpression> myAssignments = new LinkedHashMap<>();
+        private final Map<String, PyAugAssignmentStatement> myUpdates = new LinkedHashMap<>();
+        private final Map<String, String> myOperators = new HashMap<>();
+        private final Set<String> myUnsupportedReductions = new HashSet<>();
+        private final Map<String, PyReferenceExpression> myReads = new HashMap<>();
+        private final List<PsiElement> mySharedWrites = new ArrayList<>();
+        private final Set<String> myNogilUses = new HashSet<>();
+        private int myGilDepth;
+
+        @Override
+        public void visitPyFunction(@NotNull PyFunction node) {
+        }
+
+        @Override
+        public void visitPyClass(@NotNull PyClass node) {
+        }
+
+        @Override
+        public void visitPyLambdaExpression(@NotNull PyLambdaExpression node) {
+        }
+
+        @Override
+        public void visitPyWithStatement(@NotNull PyWithStatement node) {
+            boolean gil = CythonGilSummaries.isWithGil(node);
+            if (gil) myGilDepth++;
+            super.visitPyWithStatement(node);
+            if (gil) myGilDepth--;
+        }
+
+        @Override
+        public void visitPyAssignmentStatement(@NotNull PyAssignmentStatement node) {
+            for (PyExpression target : node.getTargets()) {
+                if (target instanceof PySubscriptionExpression) mySharedWrites.add(target);
+            }
+            super.visitPyAssignmentStatement(node);
+        }
+
+        @Override
+        public void visitPyAugAssignmentStatement(@NotNull PyAugAssignmentStatement node) {
+            PyExpression target = node.getTarget();
+            if (target instanceof PyReferenceExpression reference && !reference.isQualified()) {
+                String name = reference.getReferencedName();
+                PsiElement operation = node.getOperation();
+                if (name != null && operation != null) {
+                    markUse(name);
+                    String operator = operation.getText().substring(0, operation.getTextLength() - 1);
+                    myUpdates.putIfAbsent(name, node);
+                    String previous = myOperators.putIfAbsent(name, operator);
+                    if (!REDUCTION_OPERATORS.contains(operator) || previous != null && !previous.equals(operator)) {
+                        myUnsupportedReductions.add(name);
+                    }
+                }
+            } else if (target != null) {
+                mySharedWrites.add(target);
+                target.accept(this);
+            }
+            PyExpression value = node.getValue();
+            if (value != null) value.accept(this);
+        }
+
+        @Override
+        public void visitPyTargetExpression(@NotNull PyTargetExpression node) {
+            String name = node.getName();
+            if (node.isQualified()) {
+                mySharedWrites.add(node);
+            } else if (name != null) {
+                myAssignments.putIfAbsent(name, node);
+                markUse(name);
+            }
+            super.visitPyTargetExpression(node);
+        }
+
+        @Override
+        public void visitPyReferenceExpression(@NotNull PyReferenceExpression node) {
+            String name = node.getReferencedName();
+            if (!node.isQualified() && name != null) {
+                myReads.putIfAbsent(name, node);
+                markUse(name);
+            }
+            super.visitPyReferenceExpression(node);
+        }
+
+        private void markUse(@NotNull String name) {
+            if (myGilDepth == 0) myNogilUses.add(name);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.cythonfix.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A size-bounded LRU cache whose values are softly referenced.
+ *
+ * The least recently used entry is evicted once the cache is full, and the garbage collector
+ * may reclaim any value under memory pressure; a reclaimed value counts as an eviction and is
+ * simply recomputed on the next access. Hit, miss and eviction counts are kept for
+ * {@link CythonFixCaches#getStatistics()}.
+ */
+public final class BoundedCache<K, V> {
+
+    public record Stats(@NotNull String name, int size, int maxSize, long hits, long misses, long evictions) {
+    }
+
+    private final String myName;
+    private final int myMaxSize;
+    private final Map<K, SoftReference<V>> myEntries;
+    private long myHits;
+    private long myMisses;
+    private long myEvictions;
+
+    BoundedCache(@NotNull String name, int maxSize) {
+        myName = name;
+        myMaxSize = maxSize;
+        myEntries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, SoftReference<V>> eldest) {
+                if (size() <= myMaxSize) return false;
+                myEvictions++;
+                return true;
+            }
+        };
+    }
+
+    @NotNull
+    public String getName() {
+        return myName;
+    }
+
+    @Nullable
+    public synchronized V get(@NotNull K key) {
+        SoftReference<V> reference = myEntries.get(key);
+        V value = reference != null ? reference.get() : null;
+        if (value != null) {
+            myHits++;
+            return value;
+        }
+        if (reference != null) {
+            // Reclaimed by the garbage collector
+            myEntries.remove(key);
+            myEvictions++;
+        }
+        myMisses++;
+        return null;
+    }
+
+    public synchronized void put(@NotNull K key, @NotNull V value) {
+        myEntries.put(key, new SoftReference<>(value));
+    }
+
+    /**
+     * Returns the cached value, computing and caching it if absent.
+     *
+     * The computation runs outside the cache lock, since it usually reads PSI or indexes and
+     * must not block other callers, so concurrent callers may compute the same value twice.
+     * The first value stored wins: a caller that finishes later returns the stored value
+     * instead of replacing it, so all callers see the same result.
+     */
+    @NotNull
+    public V computeIfAbsent(@NotNull K key, @NotNull Function<? super K, ? extends V> compute) {
+        V value = get(key);
+        if (value != null) return value;
+        V computed = compute.apply(key);
+        synchronized (this) {
+            SoftReference<V> reference = myEntries.get(key);
+            V stored = reference != null ? reference.get() : null;
+            if (stored != null) return stored;
+            myEntries.put(key, new SoftReference<>(computed));
+        }
+        return computed;
+    }
+
+    public synchronized void remove(@NotNull K key) {
+        myEntries.remove(key);
+    }
+
+    public synchronized void clear() {
+        myEvictions += myEntries.size();
+        myEntries.clear();
+    }
+
+    @NotNull
+    public synchronized Stats getStats() {
+        return new Stats(myName, myEntries.size(), myMaxSize, myHits, myMisses, myEvictions);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cythonfix.cache;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.LowMemoryWatcher;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the plugin's {@link BoundedCache}s.
+ *
+ * All caches are cleared when the IDE reports low memory, on top of the soft references that
+ * let the garbage collector reclaim individual values.
+ */
+@Service
+public final class CythonFixCaches implements Disposable {
+
+    private final Set<BoundedCache<?, ?>> myCaches = ConcurrentHashMap.newKeySet();
+
+    public CythonFixCaches() {
+        LowMemoryWatcher.register(this::clearAll, this);
+    }
+
+    @NotNull
+    public static CythonFixCaches getInstance() {
+        return ApplicationManager.getApplication().getService(CythonFixCaches.class);
+    }
+
+    /**
+     * Creates a cache that stays registered until the parent is disposed, or for the lifetime
+     * of the application if there is no parent.
+     */
+    @NotNull
+    public <K, V> BoundedCache<K, V> newCache(@NotNull String name, int maxSize, @Nullable Disposable parent) {
+        BoundedCache<K, V> cache = new BoundedCache<>(name, maxSize);
+        myCaches.add(cache);
+        if (parent != null) {
+            Disposer.register(parent, () -> {
+                myCaches.remove(cache);
+                cache.clear();
+            });
+        }
+        return cache;
+    }
+
+    @NotNull
+    public List<BoundedCache.Stats> getStatistics() {
+        List<BoundedCache.Stats> statistics = new ArrayList<>();
+        for (BoundedCache<?, ?> cache : myCaches) {
+            statistics.add(cache.getStats());
+        }
+        statistics.sort(Comparator.comparing(BoundedCache.Stats::name));
+        return statistics;
+    }
+
+    private void clearAll() {
+        for (BoundedCache<?, ?> cache : myCaches) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        myCaches.clear();
+    }
+}
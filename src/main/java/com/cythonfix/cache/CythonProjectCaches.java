@@ -0,0 +1,105 @@
+package com.cythonfix.cache;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiFile;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Project-scoped caches of PSI-derived data.
+ *
+ * Entries hold PSI, so each one records the modification stamps of the files it was computed
+ * from, plus the VFS structure count for files being created, moved or deleted. An entry is
+ * treated as missing once one of those files changed, so typing in an unrelated file keeps it.
+ */
+@Service(Service.Level.PROJECT)
+public final class CythonProjectCaches implements Disposable {
+
+    /** The files an entry depends on and their modification stamps when it was computed. */
+    public record Stamp(@NotNull List<PsiFile> files, @NotNull List<Long> fileStamps, long structureStamp) {
+
+        @NotNull
+        public static Stamp of(@NotNull Collection<? extends PsiFile> files) {
+            List<PsiFile> dependencies = List.copyOf(new LinkedHashSet<>(files));
+            List<Long> fileStamps = new ArrayList<>(dependencies.size());
+            for (PsiFile file : dependencies) {
+                fileStamps.add(file.getModificationStamp());
+            }
+            return new Stamp(dependencies, List.copyOf(fileStamps),
+                    VirtualFileManager.getInstance().getStructureModificationCount());
+        }
+
+        public boolean isUpToDate() {
+            if (structureStamp != VirtualFileManager.getInstance().getStructureModificationCount()) return false;
+            for (int i = 0; i < files.size(); i++) {
+                PsiFile file = files.get(i);
+                if (!file.isValid() || file.getModificationStamp() != fileStamps.get(i)) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Transitive .pxi include closure of a file, in include order. */
+    public record IncludeClosure(@NotNull Stamp stamp, @NotNull List<PyFile> files) {
+    }
+
+    /** The __cinit__ used as constructor of a cdef class, or null if the class doesn't need one. */
+    public record Constructor(@NotNull Stamp stamp, @Nullable PyFunction cinit) {
+    }
+
+    /** Identifies a class by its file and offset; stale keys are caught by the stamp check. */
+    public record ClassKey(@NotNull VirtualFile file, int offset) {
+    }
+
+    private final BoundedCache<VirtualFile, IncludeClosure> myIncludeClosures;
+    private final BoundedCache<ClassKey, Constructor> myConstructors;
+
+    public CythonProjectCaches(@NotNull Project project) {
+        CythonFixCaches caches = CythonFixCaches.getInstance();
+        myIncludeClosures = caches.newCache("Include closures (" + project.getName() + ")", 4096, this);
+        myConstructors = caches.newCache("cdef class constructors (" + project.getName() + ")", 4096, this);
+    }
+
+    @NotNull
+    public static CythonProjectCaches getInstance(@NotNull Project project) {
+        return project.getService(CythonProjectCaches.class);
+    }
+
+    @Nullable
+    public IncludeClosure getIncludeClosure(@NotNull VirtualFile file) {
+        IncludeClosure closure = myIncludeClosures.get(file);
+        if (closure == null || !closure.stamp().isUpToDate()) return null;
+        return closure;
+    }
+
+    public void putIncludeClosure(@NotNull VirtualFile file, @NotNull IncludeClosure closure) {
+        myIncludeClosures.put(file, closure);
+    }
+
+    @Nullable
+    public Constructor getConstructor(@NotNull ClassKey key) {
+        Constructor constructor = myConstructors.get(key);
+        if (constructor == null || !constructor.stamp().isUpToDate()) return null;
+        PyFunction cinit = constructor.cinit();
+        return cinit == null || cinit.isValid() ? constructor : null;
+    }
+
+    public void putConstructor(@NotNull ClassKey key, @NotNull Constructor constructor) {
+        myConstructors.put(key, constructor);
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -0,0 +1,260 @@
+package com.cythonfix.deps;
+
+import com.cythonfix.index.CythonFileSummaryIndex;
+import com.cythonfix.psi.CythonCimports;
+import com.cythonfix.resolve.CythonCimportResolver;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.python.pro.cython.psi.CythonIncludeStatement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File-level build dependencies of the Cython sources in a project: the {@code .pxi} files a
+ * file includes, the {@code .pxd} files it cimports, and the {@code .pxd} next to a
+ * {@code .pyx} of the same name.
+ *
+ * Includes are read from {@link CythonFileSummaryIndex}, falling back to resolving the
+ * {@code include} statements when an indexed path is not found next to the file, and cimports
+ * resolved through
+ * {@link CythonCimportResolver}, the same resolution the editor uses; files are processed
+ * concurrently. Dependencies outside the project content (SDK and library {@code .pxd} files)
+ * are left out, since builds don't track them.
+ */
+public final class CythonDependencyGraph {
+
+    private static final String PYX = "pyx";
+    private static final String PXD = "pxd";
+
+    private final Map<VirtualFile, List<VirtualFile>> myDependencies;
+    private final @Nullable VirtualFile myBaseDir;
+
+    private CythonDependencyGraph(@NotNull Map<VirtualFile, List<VirtualFile>> dependencies,
+                                  @Nullable VirtualFile baseDir) {
+        myDependencies = dependencies;
+        myBaseDir = baseDir;
+    }
+
+    /**
+     * Builds the graph for all Cython files in the project. Must not be called from a read
+     * action; each file is processed in its own.
+     */
+    @NotNull
+    public static CythonDependencyGraph compute(@NotNull Project project,
+                                                @Nullable VirtualFile baseDir,
+                                                @NotNull ProgressIndicator indicator) {
+        List<VirtualFile> files = ReadAction.compute(() -> {
+            List<VirtualFile> result = new ArrayList<>();
+            GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            for (String extension : CythonFileSummaryIndex.CYTHON_EXTENSIONS) {
+                result.addAll(FilenameIndex.getAllFilesByExt(project, extension, scope));
+            }
+            return result;
+        });
+
+        Map<VirtualFile, List<VirtualFile>> dependencies = new ConcurrentHashMap<>();
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, indicator, file -> {
+            dependencies.put(file, ReadAction.compute(() -> findDependencies(project, file)));
+            return true;
+        });
+        return new CythonDependencyGraph(Map.copyOf(dependencies), baseDir);
+    }
+
+    /** Returns the direct dependencies of a file. */
+    @NotNull
+    public List<VirtualFile> getDependencies(@NotNull VirtualFile file) {
+        return myDependencies.getOrDefault(file, List.of());
+    }
+
+    /** Returns the direct and transitive dependencies of a file. */
+    @NotNull
+    public Set<VirtualFile> getTransitiveDependencies(@NotNull VirtualFile file) {
+        Set<VirtualFile> closure = new LinkedHashSet<>();
+        Deque<VirtualFile> queue = new ArrayDeque<>(getDependencies(file));
+        while (!queue.isEmpty()) {
+            VirtualFile next = queue.poll();
+            if (closure.add(next)) queue.addAll(getDependencies(next));
+        }
+        closure.remove(file);
+        return closure;
+    }
+
+    /**
+     * Returns the {@code .pyx} modules that must be recompiled after the given files changed:
+     * changed modules and every module that includes or cimports a changed file, directly or
+     * transitively.
+     */
+    @NotNull
+    public Set<VirtualFile> getModulesToRebuild(@NotNull Collection<VirtualFile> changed) {
+        Map<VirtualFile, List<VirtualFile>> dependents = new HashMap<>();
+        myDependencies.forEach((file, dependencies) -> {
+            for (VirtualFile dependency : dependencies) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(file);
+            }
+        });
+
+        Set<VirtualFile> affected = new LinkedHashSet<>();
+        Deque<VirtualFile> queue = new ArrayDeque<>(changed);
+        while (!queue.isEmpty()) {
+            VirtualFile next = queue.poll();
+            if (affected.add(next)) queue.addAll(dependents.getOrDefault(next, List.of()));
+        }
+        affected.removeIf(file -> !PYX.equals(file.getExtension()));
+        return affected;
+    }
+
+    /**
+     * Formats the direct dependencies of every file as JSON:
+     * {@code {"files": {"pkg/a.pyx": ["pkg/a.pxd", "pkg/util.pxi"]}}}.
+     */
+    @NotNull
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"files\": {");
+        String separator = "\n";
+        for (Map.Entry<String, List<String>> entry : getSortedPaths().entrySet()) {
+            json.append(separator).append("    ").append(quote(entry.getKey())).append(": [");
+            json.append(String.join(", ", entry.getValue().stream().map(CythonDependencyGraph::quote).toList()));
+            json.append(']');
+            separator = ",\n";
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    /**
+     * Formats the graph as a Makefile depfile: one rule per {@code .pyx} module, with the
+     * generated {@code .c} file depending on the module and its transitive dependencies.
+     */
+    @NotNull
+    public String toMakefile() {
+        StringBuilder make = new StringBuilder();
+        List<VirtualFile> modules = new ArrayList<>(myDependencies.keySet());
+        modules.removeIf(file -> !PYX.equals(file.getExtension()));
+        modules.sort(Comparator.comparing(this::getPath));
+        for (VirtualFile module : modules) {
+            String path = getPath(module);
+            make.append(escapeMake(StringUtil.trimEnd(path, "." + PYX) + ".c")).append(':');
+            make.append(' ').append(escapeMake(path));
+            for (VirtualFile dependency : getTransitiveDependencies(module)) {
+                make.append(" \\\n  ").append(escapeMake(getPath(dependency)));
+            }
+            make.append('\n');
+        }
+        return make.toString();
+    }
+
+    /** Returns the path of a file relative to the base directory, or its absolute path. */
+    @NotNull
+    public String getPath(@NotNull VirtualFile file) {
+        String relative = myBaseDir != null ? VfsUtilCore.getRelativePath(file, myBaseDir) : null;
+        return relative != null ? relative : file.getPath();
+    }
+
+    @NotNull
+    private Map<String, List<String>> getSortedPaths() {
+        Map<String, List<String>> paths = new TreeMap<>();
+        myDependencies.forEach((file, dependencies) ->
+                paths.put(getPath(file), dependencies.stream().map(this::getPath).sorted().toList()));
+        return paths;
+    }
+
+    @NotNull
+    private static List<VirtualFile> findDependencies(@NotNull Project project, @NotNull VirtualFile file) {
+        if (!file.isValid()) return List.of();
+        Set<VirtualFile> dependencies = new LinkedHashSet<>();
+        VirtualFile directory = file.getParent();
+
+        if (PYX.equals(file.getExtension()) && directory != null) {
+            VirtualFile declarations = directory.findChild(file.getNameWithoutExtension() + "." + PXD);
+            if (declarations != null) dependencies.add(declarations);
+        }
+
+        CythonFileSummaryIndex.Summary summary = CythonFileSummaryIndex.getSummary(file, project);
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        List<VirtualFile> indexedIncludes = summary != null && directory != null
+                ? findIndexedIncludes(directory, summary)
+                : null;
+        if (indexedIncludes != null) {
+            dependencies.addAll(indexedIncludes);
+        } else if (psiFile != null) {
+            // Not indexed, or an include the index can't place: resolve like the include resolver does
+            for (PsiElement child : psiFile.getChildren()) {
+                if (child instanceof CythonIncludeStatement include
+                        && include.getReference().resolve() instanceof PsiFile included
+                        && included.getVirtualFile() != null) {
+                    dependencies.add(included.getVirtualFile());
+                }
+            }
+        }
+
+        if (psiFile != null) {
+            CythonCimportResolver resolver = CythonCimportResolver.getInstance(project);
+            CythonCimports cimports = CythonCimports.of(psiFile);
+            for (String module : cimports.modules().values()) {
+                addModule(resolver.findModule(module, file), dependencies);
+            }
+            for (CythonCimports.ImportedName name : cimports.names().values()) {
+                // from pkg cimport submodule names a module; otherwise the name is a member
+                VirtualFile submodule = resolver.findModule(name.module() + "." + name.name(), file);
+                addModule(submodule != null ? submodule : resolver.findModule(name.module(), file), dependencies);
+            }
+        }
+
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        dependencies.removeIf(dependency -> dependency.equals(file) || !fileIndex.isInContent(dependency));
+        return List.copyOf(dependencies);
+    }
+
+    /**
+     * Returns the files of the indexed include paths, or null if one of them is not found
+     * relative to the including file's directory.
+     */
+    @Nullable
+    private static List<VirtualFile> findIndexedIncludes(
+            @NotNull VirtualFile directory, @NotNull CythonFileSummaryIndex.Summary summary) {
+        List<VirtualFile> includes = new ArrayList<>();
+        for (String path : summary.includes()) {
+            VirtualFile included = directory.findFileByRelativePath(path);
+            if (included == null) return null;
+            includes.add(included);
+        }
+        return includes;
+    }
+
+    private static void addModule(@Nullable VirtualFile module, @NotNull Set<VirtualFile> dependencies) {
+        if (module != null) dependencies.add(module);
+    }
+
+    @NotNull
+    private static String quote(@NotNull String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    @NotNull
+    private static String escapeMake(@NotNull String path) {
+        return path.replace(" ", "\\ ").replace("$", "$$");
+    }
+}
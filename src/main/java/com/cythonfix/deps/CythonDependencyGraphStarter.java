@@ -0,0 +1,120 @@
+package com.cythonfix.deps;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless export of the Cython dependency graph, for build scripts:
+ *
+ * <pre>
+ * pycharm cython-deps &lt;project dir&gt; [--format json|make] [--output &lt;file&gt;] [--changed &lt;file&gt;...]
+ * </pre>
+ *
+ * Writes the graph in the given format to the output file, or to stdout. With
+ * {@code --changed}, prints the {@code .pyx} modules that need recompiling after the listed
+ * files changed, one per line, instead of the graph on stdout.
+ */
+public class CythonDependencyGraphStarter implements ApplicationStarter {
+
+    private static final String USAGE =
+            "Usage: cython-deps <project dir> [--format json|make] [--output <file>] [--changed <file>...]";
+
+    @Override
+    public int getRequiredModality() {
+        return NOT_IN_EDT;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        System.exit(run(args.subList(1, args.size())));
+    }
+
+    private static int run(@NotNull List<String> args) {
+        String projectPath = null;
+        String format = "json";
+        String output = null;
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            switch (arg) {
+                case "--format" -> format = i + 1 < args.size() ? args.get(++i) : null;
+                case "--output" -> output = i + 1 < args.size() ? args.get(++i) : null;
+                case "--changed" -> {
+                    while (i + 1 < args.size() && !args.get(i + 1).startsWith("--")) changed.add(args.get(++i));
+                }
+                default -> projectPath = arg;
+            }
+        }
+        if (projectPath == null || format == null || !format.equals("json") && !format.equals("make")) {
+            System.err.println(USAGE);
+            return 1;
+        }
+
+        Project project = ProjectUtil.openOrImport(Path.of(projectPath).toAbsolutePath(), null, false);
+        if (project == null) {
+            System.err.println("Cannot open project " + projectPath);
+            return 1;
+        }
+        try {
+            DumbService.getInstance(project).waitForSmartMode();
+            VirtualFile baseDir = LocalFileSystem.getInstance().findFileByNioFile(Path.of(projectPath).toAbsolutePath());
+            CythonDependencyGraph graph = CythonDependencyGraph.compute(project, baseDir, new EmptyProgressIndicator());
+
+            String text = format.equals("make") ? graph.toMakefile() : graph.toJson();
+            if (output != null) {
+                Files.writeString(Path.of(output), text);
+            } else if (changed.isEmpty()) {
+                System.out.print(text);
+            }
+            if (!changed.isEmpty()) {
+                printModulesToRebuild(graph, changed, System.out);
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Cannot write " + output + ": " + e.getMessage());
+            return 1;
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait(
+                    () -> ProjectManager.getInstance().closeAndDispose(project));
+        }
+    }
+
+    private static void printModulesToRebuild(@NotNull CythonDependencyGraph graph,
+                                              @NotNull List<String> changed,
+                                              @NotNull PrintStream out) {
+        List<VirtualFile> files = new ArrayList<>();
+        for (String path : changed) {
+            VirtualFile file = findFile(path);
+            if (file != null) {
+                files.add(file);
+            } else {
+                System.err.println("Not found: " + path);
+            }
+        }
+        List<String> modules = ReadAction.compute(() ->
+                graph.getModulesToRebuild(files).stream().map(graph::getPath).sorted().toList());
+        modules.forEach(out::println);
+    }
+
+    @Nullable
+    private static VirtualFile findFile(@NotNull String path) {
+        return LocalFileSystem.getInstance().refreshAndFindFileByNioFile(Path.of(path).toAbsolutePath());
+    }
+}
@@ -0,0 +1,85 @@
+package com.cythonfix.editor;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Large-file mode for generated Cython sources.
+ *
+ * Files above the {@code cython.fix.large.file.threshold.kb} registry threshold are still
+ * parsed normally, but the plugin's own passes only run for the part of the file that is
+ * shown in an editor: annotation is limited to the visible area (plus a screen of margin on
+ * each side), and the formatter wrapper only wraps blocks inside the formatting range.
+ * {@link CythonViewportListener} keeps the covered range up to date while scrolling. The range
+ * is tracked for editors of every Cython file, since the interaction overlay is limited to it
+ * regardless of file size.
+ */
+public final class CythonLargeFileMode {
+
+    static final String THRESHOLD_KEY = "cython.fix.large.file.threshold.kb";
+
+    /** Range of the document that the plugin's passes cover for an editor, set by the viewport listener. */
+    static final Key<TextRange> COVERED_RANGE = Key.create("cython.fix.covered.range");
+
+    private CythonLargeFileMode() {
+    }
+
+    public static boolean isLargeFile(@NotNull PsiFile file) {
+        return file.getTextLength() > getThresholdBytes();
+    }
+
+    public static boolean isLargeFile(@NotNull Document document) {
+        return document.getTextLength() > getThresholdBytes();
+    }
+
+    /**
+     * Returns true if the plugin's passes should process this element: always for regular
+     * files, and for large files only inside the range covered by one of the open editors.
+     */
+    public static boolean isInCoveredRange(@NotNull PsiElement element) {
+        PsiFile file = element.getContainingFile();
+        if (file == null || !isLargeFile(file)) return true;
+        TextRange elementRange = element.getTextRange();
+        for (TextRange covered : getCoveredRanges(file)) {
+            if (covered.intersects(elementRange)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the ranges covered by the editors showing the file. Each editor has its own range,
+     * so split views or tabs on different parts of one file don't overwrite each other.
+     */
+    @NotNull
+    public static List<TextRange> getCoveredRanges(@NotNull PsiFile file) {
+        Document document = file.getViewProvider().getDocument();
+        if (document == null) return List.of();
+        List<TextRange> ranges = new ArrayList<>();
+        for (Editor editor : EditorFactory.getInstance().getEditors(document)) {
+            TextRange covered = editor.getUserData(COVERED_RANGE);
+            if (covered != null) ranges.add(covered);
+        }
+        return ranges;
+    }
+
+    /** Returns the range covered by the editor, or null before the viewport listener has set it. */
+    @Nullable
+    public static TextRange getCoveredRange(@NotNull Editor editor) {
+        return editor.getUserData(COVERED_RANGE);
+    }
+
+    private static long getThresholdBytes() {
+        return Registry.intValue(THRESHOLD_KEY) * 1024L;
+    }
+}
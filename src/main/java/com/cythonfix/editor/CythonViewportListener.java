@@ -0,0 +1,120 @@
+package com.cythonfix.editor;
+
+import com.cythonfix.overlay.CythonInteractionCostPassFactory;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.codeInsight.daemon.impl.DaemonCodeAnalyzerImpl;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.event.EditorFactoryEvent;
+import com.intellij.openapi.editor.event.EditorFactoryListener;
+import com.intellij.openapi.editor.event.VisibleAreaEvent;
+import com.intellij.openapi.editor.event.VisibleAreaListener;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.python.pro.cython.CythonLanguageDialect;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+
+/**
+ * Tracks the visible area of editors showing Cython files.
+ *
+ * Each editor has its own covered range. When it is first set, or scrolling leaves it, the
+ * range is moved to the new viewport (plus one screen above and below), and only the work limited
+ * to that range is redone: the interaction overlay is recomputed for the editor, and in large
+ * files the newly covered range is marked dirty so the daemon re-highlights just that part
+ * instead of the whole file.
+ */
+public class CythonViewportListener implements EditorFactoryListener {
+
+    private static final String RESTART_REASON = "Cython covered range moved";
+
+    private static final Key<VisibleAreaListener> LISTENER = Key.create("cython.fix.viewport.listener");
+
+    @Override
+    public void editorCreated(@NotNull EditorFactoryEvent event) {
+        Editor editor = event.getEditor();
+        PsiFile file = getCythonFile(editor);
+        if (file == null) return;
+
+        VisibleAreaListener listener = CythonViewportListener::visibleAreaChanged;
+        editor.putUserData(LISTENER, listener);
+        editor.getScrollingModel().addVisibleAreaListener(listener);
+        updateCoveredRange(editor, file);
+    }
+
+    @Override
+    public void editorReleased(@NotNull EditorFactoryEvent event) {
+        Editor editor = event.getEditor();
+        VisibleAreaListener listener = editor.getUserData(LISTENER);
+        if (listener != null) {
+            editor.getScrollingModel().removeVisibleAreaListener(listener);
+            editor.putUserData(LISTENER, null);
+        }
+    }
+
+    private static void visibleAreaChanged(@NotNull VisibleAreaEvent event) {
+        Editor editor = event.getEditor();
+        PsiFile file = getCythonFile(editor);
+        if (file != null) {
+            updateCoveredRange(editor, file);
+        }
+    }
+
+    private static void updateCoveredRange(@NotNull Editor editor, @NotNull PsiFile file) {
+        Document document = editor.getDocument();
+        TextRange visible = getVisibleRange(editor);
+        TextRange covered = editor.getUserData(CythonLargeFileMode.COVERED_RANGE);
+        if (visible.isEmpty() || (covered != null && covered.contains(visible))) return;
+
+        int margin = visible.getLength();
+        TextRange range = new TextRange(
+                Math.max(0, visible.getStartOffset() - margin),
+                Math.min(document.getTextLength(), visible.getEndOffset() + margin));
+        editor.putUserData(CythonLargeFileMode.COVERED_RANGE, range);
+        // Also refresh when the range is first set: a pass that ran before had nothing to cover
+        CythonInteractionCostPassFactory.refresh(editor, file);
+        if (CythonLargeFileMode.isLargeFile(document)) {
+            rehighlight(file, document, range);
+        }
+    }
+
+    /**
+     * Re-runs highlighting over a range only, so the visitor and inlay hints limited to the
+     * covered range fill in the newly visible part without the rest of the file being redone.
+     */
+    private static void rehighlight(@NotNull PsiFile file, @NotNull Document document, @NotNull TextRange range) {
+        DaemonCodeAnalyzer daemon = DaemonCodeAnalyzer.getInstance(file.getProject());
+        if (!(daemon instanceof DaemonCodeAnalyzerImpl impl)) {
+            daemon.restart(file);
+            return;
+        }
+        impl.getFileStatusMap().markFileScopeDirty(document, range, document.getTextLength(), RESTART_REASON);
+        impl.stopProcess(true, RESTART_REASON);
+    }
+
+    @NotNull
+    static TextRange getVisibleRange(@NotNull Editor editor) {
+        Rectangle area = editor.getScrollingModel().getVisibleArea();
+        Document document = editor.getDocument();
+        int start = editor.logicalPositionToOffset(editor.xyToLogicalPosition(new Point(0, area.y)));
+        int end = editor.logicalPositionToOffset(
+                editor.xyToLogicalPosition(new Point(area.x + area.width, area.y + area.height)));
+        if (document.getTextLength() == 0) return TextRange.EMPTY_RANGE;
+        end = document.getLineEndOffset(document.getLineNumber(Math.min(end, document.getTextLength())));
+        return new TextRange(Math.min(start, end), end);
+    }
+
+    @Nullable
+    private static PsiFile getCythonFile(@NotNull Editor editor) {
+        Project project = editor.getProject();
+        if (project == null || project.isDisposed()) return null;
+        PsiFile file = PsiDocumentManager.getInstance(project).getPsiFile(editor.getDocument());
+        return file != null && file.getLanguage() == CythonLanguageDialect.getInstance() ? file : null;
+    }
+}
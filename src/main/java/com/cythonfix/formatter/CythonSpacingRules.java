@@ -0,0 +1,114 @@
+package com.cythonfix.formatter;
+
+import com.intellij.formatting.ASTBlock;
+import com.intellij.formatting.Block;
+import com.intellij.formatting.Spacing;
+import com.intellij.formatting.SpacingBuilder;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.codeStyle.CodeStyleSettings;
+import com.intellij.psi.codeStyle.CommonCodeStyleSettings;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.python.pro.cython.CythonLanguageDialect;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.PyTokenTypes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spacing rules of the Cython formatter, compiled into lookup tables.
+ *
+ * The Cython rules are all "no space after X inside P" or "no space before X inside P", so
+ * they are stored in maps keyed by (parent, left) and (parent, right) element types and
+ * answered without scanning a rule list. Queries no Cython rule matches fall through to the
+ * Python rule set, whose answer is tabled per (parent, left, right) triple, misses included.
+ *
+ * Python rules only match on element types, so a triple always hits the same rule; but a rule
+ * with a line feed condition creates a new spacing for the text range of each parent. A hit is
+ * therefore tabled once the same spacing instance came back for two queries of the triple,
+ * which constant spacings do (they are created once per rule) and range-dependent ones never
+ * do. Those few triples keep asking the Python rules.
+ *
+ * Instances only depend on the code style settings and are shared across formatting
+ * requests.
+ */
+final class CythonSpacingRules extends SpacingBuilder {
+
+    private record TypeTriple(IElementType parent, IElementType left, IElementType right) {
+    }
+
+    /** A tabled Python rule answer; a null spacing is a tabled miss. */
+    private record PythonAnswer(@Nullable Spacing spacing, boolean constant) {
+    }
+
+    private final SpacingBuilder myPythonRules;
+    private final Map<IElementType, Map<IElementType, Spacing>> myAfterInside = new HashMap<>();
+    private final Map<IElementType, Map<IElementType, Spacing>> myBeforeInside = new HashMap<>();
+    private final Map<TypeTriple, PythonAnswer> myPythonAnswers = new ConcurrentHashMap<>();
+
+    CythonSpacingRules(@NotNull CodeStyleSettings settings, @NotNull SpacingBuilder pythonRules) {
+        super(settings, CythonLanguageDialect.getInstance());
+        myPythonRules = pythonRules;
+
+        CommonCodeStyleSettings common = settings.getCommonSettings(CythonLanguageDialect.getInstance());
+        Spacing none = Spacing.createSpacing(0, 0, 0, common.KEEP_LINE_BREAKS, common.KEEP_BLANK_LINES_IN_CODE);
+        // Type casts: <Type> - no space inside angle brackets
+        afterInside(PyTokenTypes.LT, CythonElementTypes.TYPECAST_EXPRESSION, none);
+        beforeInside(PyTokenTypes.GT, CythonElementTypes.TYPECAST_EXPRESSION, none);
+        // Address-of operator: &expr - no space after &
+        afterInside(PyTokenTypes.AND, CythonElementTypes.ADDRESS_EXPRESSION, none);
+        // Pointer in name declaration: *name - no space after * or **
+        afterInside(PyTokenTypes.MULT, CythonElementTypes.NAME_DECL, none);
+        afterInside(PyTokenTypes.EXP, CythonElementTypes.NAME_DECL, none);
+    }
+
+    private void afterInside(IElementType left, IElementType parent, Spacing spacing) {
+        myAfterInside.computeIfAbsent(parent, k -> new HashMap<>()).put(left, spacing);
+    }
+
+    private void beforeInside(IElementType right, IElementType parent, Spacing spacing) {
+        myBeforeInside.computeIfAbsent(parent, k -> new HashMap<>()).put(right, spacing);
+    }
+
+    @Override
+    public @Nullable Spacing getSpacing(Block parent, Block child1, Block child2) {
+        IElementType parentType = getElementType(parent);
+        IElementType leftType = getElementType(child1);
+        IElementType rightType = getElementType(child2);
+        if (parentType == null || leftType == null || rightType == null) {
+            return myPythonRules.getSpacing(parent, child1, child2);
+        }
+
+        Spacing spacing = lookup(myAfterInside, parentType, leftType);
+        if (spacing == null) spacing = lookup(myBeforeInside, parentType, rightType);
+        if (spacing != null) return spacing;
+
+        TypeTriple key = new TypeTriple(parentType, leftType, rightType);
+        PythonAnswer answer = myPythonAnswers.get(key);
+        if (answer != null && answer.constant()) return answer.spacing();
+
+        spacing = myPythonRules.getSpacing(parent, child1, child2);
+        // Seen the same answer twice: it doesn't depend on the blocks
+        boolean constant = spacing == null || answer != null && answer.spacing() == spacing;
+        if (answer == null || constant) myPythonAnswers.put(key, new PythonAnswer(spacing, constant));
+        return spacing;
+    }
+
+    @Nullable
+    private static Spacing lookup(
+            @NotNull Map<IElementType, Map<IElementType, Spacing>> table,
+            @NotNull IElementType parent, @NotNull IElementType child) {
+        Map<IElementType, Spacing> byChild = table.get(parent);
+        return byChild != null ? byChild.get(child) : null;
+    }
+
+    @Nullable
+    private static IElementType getElementType(@Nullable Block block) {
+        if (!(block instanceof ASTBlock astBlock)) return null;
+        ASTNode node = astBlock.getNode();
+        return node != null ? node.getElementType() : null;
+    }
+}
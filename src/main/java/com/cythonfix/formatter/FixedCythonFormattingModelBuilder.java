@@ -1,5 +1,6 @@
 package com.cythonfix.formatter;
 
+import com.cythonfix.editor.CythonLargeFileMode;
 import com.intellij.formatting.*;
 import com.intellij.lang.ASTNode;
 import com.intellij.openapi.util.TextRange;
@@ -7,14 +8,16 @@ import com.intellij.psi.TokenType;
 import com.intellij.psi.codeStyle.CodeStyleSettings;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.TokenSet;
-import com.intellij.python.pro.cython.CythonLanguageDialect;
 import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.intellij.util.containers.CollectionFactory;
 import com.jetbrains.python.PyTokenTypes;
 import com.jetbrains.python.formatter.PythonFormattingModelBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.SoftReference;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Custom formatting model builder for Cython that fixes spacing issues.
@@ -29,7 +32,8 @@ import java.util.List;
  * <h2>Approach</h2>
  * Uses two complementary mechanisms:
  * <ol>
- *   <li><b>SpacingBuilder</b> for simple token-level rules (casts, address-of)</li>
+ *   <li><b>SpacingBuilder</b> for simple token-level rules (casts, address-of), compiled into
+ *       lookup tables by {@link CythonSpacingRules}</li>
  *   <li><b>Block wrapper</b> for complex cases where pointer is inside a composite element</li>
  * </ol>
  */
@@ -55,19 +59,36 @@ public final class FixedCythonFormattingModelBuilder extends PythonFormattingMod
     // SpacingBuilder - handles simple token-level spacing rules
     // ========================================================================
 
+    /**
+     * Compiled spacing rules by code style settings object. They only depend on the settings,
+     * so they are reused across formatting requests until the settings are modified. Settings
+     * are weakly referenced keys compared by identity, and the rules (which point back to their
+     * settings) softly referenced values, so neither outlives the settings' owner.
+     */
+    private static final Map<CodeStyleSettings, CachedSpacingBuilder> SPACING_BUILDERS =
+            CollectionFactory.createConcurrentWeakIdentityMap();
+
+    private record CachedSpacingBuilder(long settingsModificationCount, @NotNull SoftReference<SpacingBuilder> builder) {
+    }
+
     @Override
     protected SpacingBuilder createSpacingBuilder(CodeStyleSettings settings) {
-        return new SpacingBuilder(settings, CythonLanguageDialect.getInstance())
-                // Type casts: <Type> - no space inside angle brackets
-                .afterInside((IElementType) PyTokenTypes.LT, (IElementType) CythonElementTypes.TYPECAST_EXPRESSION).none()
-                .beforeInside((IElementType) PyTokenTypes.GT, (IElementType) CythonElementTypes.TYPECAST_EXPRESSION).none()
-                // Address-of operator: &expr - no space after &
-                .afterInside((IElementType) PyTokenTypes.AND, (IElementType) CythonElementTypes.ADDRESS_EXPRESSION).none()
-                // Pointer in name declaration: *name - no space after * or **
-                .afterInside((IElementType) PyTokenTypes.MULT, (IElementType) CythonElementTypes.NAME_DECL).none()
-                .afterInside((IElementType) PyTokenTypes.EXP, (IElementType) CythonElementTypes.NAME_DECL).none()
-                // Inherit parent spacing rules
-                .append(super.createSpacingBuilder(settings));
+        long modificationCount = settings.getModificationTracker().getModificationCount();
+        CachedSpacingBuilder cached = SPACING_BUILDERS.get(settings);
+        SpacingBuilder builder = cached != null && cached.settingsModificationCount() == modificationCount
+                ? cached.builder().get()
+                : null;
+        if (builder == null) {
+            builder = buildSpacingBuilder(settings);
+            SPACING_BUILDERS.put(settings, new CachedSpacingBuilder(modificationCount, new SoftReference<>(builder)));
+        }
+        return builder;
+    }
+
+    private SpacingBuilder buildSpacingBuilder(CodeStyleSettings settings) {
+        // Cython rules (casts, address-of, pointer declarators) compiled into lookup tables,
+        // falling back to the inherited Python rules
+        return new CythonSpacingRules(settings, super.createSpacingBuilder(settings));
     }
 
     // ========================================================================
@@ -77,7 +98,11 @@ public final class FixedCythonFormattingModelBuilder extends PythonFormattingMod
     @Override
     public @NotNull FormattingModel createModel(@NotNull FormattingContext formattingContext) {
         FormattingModel baseModel = super.createModel(formattingContext);
-        return new PointerSpacingFormattingModel(baseModel);
+        // In large-file mode, blocks outside the formatting range are left unwrapped
+        TextRange wrapRange = CythonLargeFileMode.isLargeFile(formattingContext.getContainingFile())
+                ? formattingContext.getFormattingRange()
+                : null;
+        return new PointerSpacingFormattingModel(baseModel, wrapRange);
     }
 
     /**
@@ -87,9 +112,9 @@ public final class FixedCythonFormattingModelBuilder extends PythonFormattingMod
         private final FormattingModel delegate;
         private final Block wrappedRootBlock;
 
-        PointerSpacingFormattingModel(FormattingModel delegate) {
+        PointerSpacingFormattingModel(FormattingModel delegate, @Nullable TextRange wrapRange) {
             this.delegate = delegate;
-            this.wrappedRootBlock = new PointerSpacingBlock(delegate.getRootBlock());
+            this.wrappedRootBlock = new PointerSpacingBlock(delegate.getRootBlock(), wrapRange);
         }
 
         @Override
@@ -124,13 +149,19 @@ public final class FixedCythonFormattingModelBuilder extends PythonFormattingMod
      * <p>Handles the case where a pointer operator (* or **) is embedded inside
      * a SIMPLE_BASE_TYPE_DECL, which SpacingBuilder cannot handle because the
      * operator is not a direct child of the spacing context.
+     *
+     * <p>If a wrap range is given, only sub-blocks intersecting it are wrapped. Spacing outside
+     * the formatting range is never applied, so this skips the wrapper for the rest of a
+     * large file.
      */
     private static final class PointerSpacingBlock implements Block {
         private final Block delegate;
+        private final @Nullable TextRange wrapRange;
         private List<Block> wrappedSubBlocks;
 
-        PointerSpacingBlock(Block delegate) {
+        PointerSpacingBlock(Block delegate, @Nullable TextRange wrapRange) {
             this.delegate = delegate;
+            this.wrapRange = wrapRange;
         }
 
         @Override
@@ -142,8 +173,7 @@ public final class FixedCythonFormattingModelBuilder extends PythonFormattingMod
         public @NotNull List<Block> getSubBlocks() {
             if (wrappedSubBlocks == null) {
                 wrappedSubBlocks = delegate.getSubBlocks().stream()
-                        .map(PointerSpacingBlock::new)
-                        .map(block -> (Block) block)
+                        .map(this::wrap)
                         .toList();
             }
             return wrappedSubBlocks;
@@ -211,6 +241,13 @@ public final class FixedCythonFormattingModelBuilder extends PythonFormattingMod
             return delegate.isLeaf();
         }
 
+        private Block wrap(Block block) {
+            if (wrapRange != null && !block.getTextRange().intersects(wrapRange)) {
+                return block;
+            }
+            return new PointerSpacingBlock(block, wrapRange);
+        }
+
         private static Block unwrap(Block block) {
             return block instanceof PointerSpacingBlock wrapper ? wrapper.delegate : block;
         }
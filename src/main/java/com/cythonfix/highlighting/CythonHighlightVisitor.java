@@ -0,0 +1,191 @@
+package com.cythonfix.highlighting;
+
+import com.cythonfix.editor.CythonLargeFileMode;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.codeInsight.daemon.impl.HighlightInfoType;
+import com.intellij.codeInsight.daemon.impl.HighlightVisitor;
+import com.intellij.codeInsight.daemon.impl.analysis.HighlightInfoHolder;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.PyTokenTypes;
+import com.jetbrains.python.ast.PyAstStringLiteralExpression;
+import com.jetbrains.python.ast.docstring.DocStringUtilCore;
+import com.jetbrains.python.highlighting.PyHighlighter;
+import com.jetbrains.python.psi.PyClass;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyStatementList;
+import com.jetbrains.python.psi.PyWithItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Semantic highlighting for Cython files in a single visitor.
+ *
+ * The daemon calls {@link #visit} once for every element in the range being re-highlighted,
+ * and each element is dispatched on its element type to at most one of:
+ * <ul>
+ *   <li>docstrings of cdef/cpdef functions and cdef classes, which the lexer tokenizes as plain
+ *   strings because {@code cdef} is not a keyword to it;</li>
+ *   <li>C type names in declarations, such as {@code unsigned long} or {@code np.float64_t};</li>
+ *   <li>pointer operators in types and declarators ({@code int *p}, {@code char **argv});</li>
+ *   <li>{@code nogil} in {@code with nogil:} and function signatures;</li>
+ *   <li>the {@code <type>} part of typecasts.</li>
+ * </ul>
+ * In large-file mode elements outside the covered range are skipped.
+ */
+public class CythonHighlightVisitor implements HighlightVisitor {
+
+    private static final String NOGIL = "nogil";
+    private static final String CONST = "const";
+
+    private static final TokenSet POINTER_OPERATORS = TokenSet.create(PyTokenTypes.MULT, PyTokenTypes.EXP);
+
+    private static final TokenSet POINTER_PARENTS = TokenSet.create(
+            CythonElementTypes.NAME_DECL,
+            CythonElementTypes.SIMPLE_BASE_TYPE_DECL,
+            CythonElementTypes.COMPLEX_BASE_TYPE_DECL
+    );
+
+    private HighlightInfoHolder myHolder;
+    private boolean myLimitedToCoveredRange;
+    private @NotNull List<TextRange> myCoveredRanges = List.of();
+
+    @Override
+    public boolean suitableForFile(@NotNull PsiFile file) {
+        return file instanceof PyFile && CythonPsiUtil.isInCythonFile(file);
+    }
+
+    @Override
+    public boolean analyze(
+            @NotNull PsiFile file,
+            boolean updateWholeFile,
+            @NotNull HighlightInfoHolder holder,
+            @NotNull Runnable action) {
+
+        myHolder = holder;
+        myLimitedToCoveredRange = CythonLargeFileMode.isLargeFile(file);
+        myCoveredRanges = myLimitedToCoveredRange ? CythonLargeFileMode.getCoveredRanges(file) : List.of();
+        try {
+            action.run();
+        } finally {
+            myHolder = null;
+            myCoveredRanges = List.of();
+        }
+        return true;
+    }
+
+    private boolean isCovered(@NotNull TextRange range) {
+        for (TextRange covered : myCoveredRanges) {
+            if (covered.intersects(range)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void visit(@NotNull PsiElement element) {
+        ASTNode node = element.getNode();
+        if (node == null) return;
+        if (myLimitedToCoveredRange && !isCovered(node.getTextRange())) return;
+
+        IElementType type = node.getElementType();
+        if (element instanceof PyFunction function) {
+            highlightDocString(function.getStatementList());
+        } else if (element instanceof PyClass pyClass) {
+            highlightDocString(pyClass.getStatementList());
+        } else if (type == CythonElementTypes.SIMPLE_BASE_TYPE_DECL) {
+            highlightTypeNames(node);
+        } else if (type == CythonElementTypes.TYPECAST_EXPRESSION) {
+            highlightTypecast(node);
+        } else if (POINTER_OPERATORS.contains(type)) {
+            ASTNode parent = node.getTreeParent();
+            if (parent != null && POINTER_PARENTS.contains(parent.getElementType())) {
+                highlight(node.getTextRange(), CythonHighlighterColors.POINTER);
+            }
+        } else if (type == PyTokenTypes.IDENTIFIER && NOGIL.contentEquals(node.getChars()) && isNogilMarker(element)) {
+            highlight(node.getTextRange(), CythonHighlighterColors.NOGIL);
+        }
+    }
+
+    /**
+     * Returns true for {@code nogil} in a function header ({@code cdef int f() nogil:}) or as a
+     * {@code with nogil:} item, but not for keyword arguments such as {@code prange(nogil=True)}
+     * or variables that happen to be called {@code nogil}.
+     */
+    private static boolean isNogilMarker(@NotNull PsiElement identifier) {
+        PyWithItem item = PsiTreeUtil.getParentOfType(identifier, PyWithItem.class, true, PyStatementList.class);
+        if (item != null) {
+            PyExpression expression = item.getExpression();
+            return expression != null && NOGIL.equals(expression.getText());
+        }
+
+        PyFunction function = PsiTreeUtil.getParentOfType(identifier, PyFunction.class, true, PyStatementList.class);
+        if (function == null) return false;
+        int offset = identifier.getTextRange().getStartOffset();
+        PyStatementList body = function.getStatementList();
+        int bodyStart = body.getTextLength() > 0 ? body.getTextRange().getStartOffset() : function.getTextRange().getEndOffset();
+        return offset >= function.getParameterList().getTextRange().getEndOffset() && offset < bodyStart;
+    }
+
+    private void highlightDocString(@Nullable PyStatementList statementList) {
+        if (statementList == null) return;
+        PyAstStringLiteralExpression docString = DocStringUtilCore.findDocStringExpression(statementList);
+        if (docString != null) {
+            highlight(docString.getTextRange(), PyHighlighter.PY_DOC_COMMENT);
+        }
+    }
+
+    /**
+     * Highlights the type words of a base type declaration: keyword-like identifiers such as
+     * {@code unsigned long}, and the last component of named types such as {@code np.float64_t}.
+     * Template arguments are reference expressions of their own and are left alone.
+     */
+    private void highlightTypeNames(@NotNull ASTNode typeDecl) {
+        for (ASTNode child = typeDecl.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            IElementType childType = child.getElementType();
+            if (childType == PyTokenTypes.IDENTIFIER && !CONST.contentEquals(child.getChars())) {
+                highlight(child.getTextRange(), CythonHighlighterColors.C_TYPE);
+            } else if (childType == CythonElementTypes.REFERENCE_EXPRESSION) {
+                ASTNode name = child.findChildByType(PyTokenTypes.IDENTIFIER);
+                if (name != null) highlight(name.getTextRange(), CythonHighlighterColors.C_TYPE);
+            }
+        }
+    }
+
+    /**
+     * Highlights the {@code <type>} prefix of a typecast, up to and including the closing
+     * {@code >}, leaving the cast operand to the regular highlighting.
+     */
+    private void highlightTypecast(@NotNull ASTNode typecast) {
+        ASTNode closing = typecast.findChildByType(PyTokenTypes.GT);
+        if (closing == null) return;
+        highlight(new TextRange(typecast.getStartOffset(), closing.getTextRange().getEndOffset()),
+                CythonHighlighterColors.TYPECAST);
+    }
+
+    private void highlight(@NotNull TextRange range, @NotNull TextAttributesKey key) {
+        HighlightInfo info = HighlightInfo.newHighlightInfo(HighlightInfoType.INFORMATION)
+                .severity(HighlightInfoType.SYMBOL_TYPE_SEVERITY)
+                .range(range)
+                .textAttributes(key)
+                .create();
+        if (info != null) myHolder.add(info);
+    }
+
+    @Override
+    @NotNull
+    public HighlightVisitor clone() {
+        return new CythonHighlightVisitor();
+    }
+}
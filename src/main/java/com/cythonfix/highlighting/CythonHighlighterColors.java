@@ -0,0 +1,27 @@
+package com.cythonfix.highlighting;
+
+import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+
+import static com.intellij.openapi.editor.colors.TextAttributesKey.createTextAttributesKey;
+
+/**
+ * Text attributes for Cython constructs highlighted by {@link CythonHighlightVisitor}.
+ */
+public final class CythonHighlighterColors {
+
+    public static final TextAttributesKey C_TYPE =
+            createTextAttributesKey("CYTHON_FIX.C_TYPE", DefaultLanguageHighlighterColors.CLASS_REFERENCE);
+
+    public static final TextAttributesKey POINTER =
+            createTextAttributesKey("CYTHON_FIX.POINTER", DefaultLanguageHighlighterColors.OPERATION_SIGN);
+
+    public static final TextAttributesKey NOGIL =
+            createTextAttributesKey("CYTHON_FIX.NOGIL", DefaultLanguageHighlighterColors.KEYWORD);
+
+    public static final TextAttributesKey TYPECAST =
+            createTextAttributesKey("CYTHON_FIX.TYPECAST", DefaultLanguageHighlighterColors.METADATA);
+
+    private CythonHighlighterColors() {
+    }
+}
@@ -0,0 +1,206 @@
+package com.cythonfix.hints;
+
+import com.cythonfix.editor.CythonLargeFileMode;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.type.CythonDeclaredType;
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.intellij.codeInsight.hints.declarative.HintFormat;
+import com.intellij.codeInsight.hints.declarative.InlayHintsCollector;
+import com.intellij.codeInsight.hints.declarative.InlayHintsProvider;
+import com.intellij.codeInsight.hints.declarative.InlayTreeSink;
+import com.intellij.codeInsight.hints.declarative.InlineInlayPosition;
+import com.intellij.codeInsight.hints.declarative.SharedBypassCollector;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.PyTokenTypes;
+import com.jetbrains.python.psi.PyAssignmentStatement;
+import com.jetbrains.python.psi.PyAugAssignmentStatement;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyForPart;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyNumericLiteralExpression;
+import com.jetbrains.python.psi.PyParenthesizedExpression;
+import com.jetbrains.python.psi.PyPrefixExpression;
+import com.jetbrains.python.psi.PyRecursiveElementVisitor;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.PySubscriptionExpression;
+import com.jetbrains.python.psi.PyTargetExpression;
+import com.jetbrains.python.psi.PyTupleExpression;
+import kotlin.Unit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inlay hints showing the C type of a local: {@code : double} after the first assignment or loop
+ * target, including tuple targets, of a name declared {@code cdef double}.
+ *
+ * Undeclared names get the type Cython's safe inference gives them when every assignment agrees:
+ * {@code x = 1.0} is a {@code double} and {@code p = &buf[0]} a pointer to the element type.
+ * Other undeclared names get no hint, since the compiler may still infer a C type for them.
+ *
+ * Types come from the per-function declaration tables of {@link CythonDeclaredTypes}, and first
+ * bindings and inferred types from per-function maps, all cached until the file changes, so a
+ * hint is a few map lookups. In large-file mode hints are only collected for the range covered by the viewport,
+ * which {@code CythonViewportListener} moves and re-highlights while scrolling.
+ */
+public class CythonCTypeInlayHintsProvider implements InlayHintsProvider {
+
+    private static final String DOUBLE = "double";
+
+    @Override
+    @Nullable
+    public InlayHintsCollector createCollector(@NotNull PsiFile file, @NotNull Editor editor) {
+        if (!CythonPsiUtil.isInCythonFile(file)) return null;
+        return new Collector();
+    }
+
+    private static final class Collector implements SharedBypassCollector {
+
+        @Override
+        public void collectFromElement(@NotNull PsiElement element, @NotNull InlayTreeSink sink) {
+            if (!(element instanceof PyTargetExpression target) || !isHintedTarget(target)) return;
+            String name = target.getName();
+            ScopeOwner owner = ScopeUtil.getScopeOwner(target);
+            if (name == null || !(owner instanceof PyFunction function)) return;
+            if (!CythonLargeFileMode.isInCoveredRange(target)) return;
+            if (getFirstTargets(function).get(name) != target) return;
+
+            CythonDeclaredType type = CythonDeclaredTypes.getDeclaredType(function, name);
+            String typeText = type != null ? type.getPresentableText() : getInferredTypes(function).get(name);
+            if (typeText == null) return;
+            String text = ": " + typeText;
+            sink.addPresentation(
+                    new InlineInlayPosition(target.getTextRange().getEndOffset(), true, 0),
+                    null, null, HintFormat.Companion.getDefault(),
+                    builder -> {
+                        builder.text(text, null);
+                        return Unit.INSTANCE;
+                    });
+        }
+    }
+
+    /**
+     * Returns the first binding of each name in the function's own scope, in document order.
+     */
+    @NotNull
+    private static Map<String, PyTargetExpression> getFirstTargets(@NotNull PyFunction function) {
+        return CachedValuesManager.getCachedValue(function, () -> {
+            Map<String, PyTargetExpression> targets = new HashMap<>();
+            function.getStatementList().accept(new PyRecursiveElementVisitor() {
+                @Override
+                public void visitPyTargetExpression(@NotNull PyTargetExpression node) {
+                    String name = node.getName();
+                    if (name != null && isHintedTarget(node) && ScopeUtil.getScopeOwner(node) == function) {
+                        targets.putIfAbsent(name, node);
+                    }
+                    super.visitPyTargetExpression(node);
+                }
+            });
+            return CachedValueProvider.Result.create(targets, function.getContainingFile());
+        });
+    }
+
+    /**
+     * Returns the types safe inference gives undeclared names of the function: names whose
+     * assignments all have the same inferable type. Names also bound by loops, tuple unpacking
+     * or in-place updates are left out.
+     */
+    @NotNull
+    private static Map<String, String> getInferredTypes(@NotNull PyFunction function) {
+        return CachedValuesManager.getCachedValue(function, () -> {
+            Map<String, String> types = new HashMap<>();
+            Set<String> ambiguous = new HashSet<>();
+            function.getStatementList().accept(new PyRecursiveElementVisitor() {
+                @Override
+                public void visitPyTargetExpression(@NotNull PyTargetExpression node) {
+                    String name = node.getName();
+                    if (name != null && !node.isQualified() && ScopeUtil.getScopeOwner(node) == function) {
+                        String type = node.getParent() instanceof PyAssignmentStatement assignment
+                                ? inferType(assignment.getAssignedValue(), function)
+                                : null;
+                        String previous = type != null ? types.putIfAbsent(name, type) : null;
+                        if (type == null || previous != null && !previous.equals(type)) ambiguous.add(name);
+                    }
+                    super.visitPyTargetExpression(node);
+                }
+
+                @Override
+                public void visitPyAugAssignmentStatement(@NotNull PyAugAssignmentStatement node) {
+                    if (node.getTarget() instanceof PyReferenceExpression reference && !reference.isQualified()
+                            && reference.getReferencedName() != null) {
+                        ambiguous.add(reference.getReferencedName());
+                    }
+                    super.visitPyAugAssignmentStatement(node);
+                }
+            });
+            types.keySet().removeAll(ambiguous);
+            return CachedValueProvider.Result.create(types, function.getContainingFile());
+        });
+    }
+
+    /**
+     * Returns the C type of a float literal or of the address of a declared name or element,
+     * or null for anything else.
+     */
+    @Nullable
+    private static String inferType(@Nullable PyExpression value, @NotNull PyFunction function) {
+        if (value instanceof PyPrefixExpression prefix
+                && (prefix.getOperator() == PyTokenTypes.MINUS || prefix.getOperator() == PyTokenTypes.PLUS)) {
+            value = prefix.getOperand();
+        }
+        if (value instanceof PyNumericLiteralExpression number) {
+            String text = number.getText();
+            boolean imaginary = StringUtil.endsWithIgnoreCase(text, "j");
+            return !number.isIntegerLiteral() && !imaginary ? DOUBLE : null;
+        }
+        if (value == null || value.getNode().getElementType() != CythonElementTypes.ADDRESS_EXPRESSION) return null;
+
+        PyExpression operand = PsiTreeUtil.getChildOfType(value, PyExpression.class);
+        boolean element = operand instanceof PySubscriptionExpression;
+        if (operand instanceof PySubscriptionExpression subscription) operand = subscription.getOperand();
+        if (!(operand instanceof PyReferenceExpression reference) || reference.isQualified()) return null;
+        String name = reference.getReferencedName();
+        CythonDeclaredType type = name != null ? CythonDeclaredTypes.findDeclaredType(function, name) : null;
+        if (type == null) return null;
+
+        int pointers;
+        if (!element) {
+            if (type.isMemoryView() || type.isArray()) return null;
+            pointers = type.pointerDepth() + 1;
+        } else if (type.isMemoryView() || type.isArray()) {
+            // &view[i, j] and &buf[i] point to one element
+            pointers = type.pointerDepth() + 1;
+        } else if (type.isPointer()) {
+            pointers = type.pointerDepth();
+        } else {
+            return null;
+        }
+        return type.baseName() + " " + "*".repeat(pointers);
+    }
+
+    /**
+     * Returns true for names bound by an assignment or a for loop, directly or as an element of
+     * a tuple target such as {@code for i, x in ...}.
+     */
+    private static boolean isHintedTarget(@NotNull PyTargetExpression target) {
+        if (target.isQualified()) return false;
+        PsiElement parent = target.getParent();
+        while (parent instanceof PyTupleExpression || parent instanceof PyParenthesizedExpression) {
+            parent = parent.getParent();
+        }
+        return parent instanceof PyAssignmentStatement || parent instanceof PyForPart;
+    }
+}
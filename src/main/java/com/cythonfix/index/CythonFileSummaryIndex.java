@@ -0,0 +1,146 @@
+package com.cythonfix.index;
+
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.python.pro.cython.psi.CythonIncludeStatement;
+import com.intellij.python.pro.cython.psi.CythonNamedElement;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.indexing.SingleEntryFileBasedIndexExtension;
+import com.intellij.util.indexing.SingleEntryIndexer;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyStringLiteralExpression;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Persistent per-file summary of a Cython file: the paths it includes and the names of its
+ * top-level Cython declarations (ctypedef, cdef struct, ctypedef fused, ...).
+ *
+ * The index is stored under the system directory and survives restarts. Entries are keyed by
+ * file content and re-indexed only when that file changes, so after a restart include
+ * closures can be walked and candidate declaring files picked without parsing anything.
+ */
+public class CythonFileSummaryIndex extends SingleEntryFileBasedIndexExtension<CythonFileSummaryIndex.Summary> {
+
+    public static final ID<Integer, Summary> NAME = ID.create("cython.fix.file.summary");
+
+    public static final Set<String> CYTHON_EXTENSIONS = Set.of("pyx", "pxd", "pxi");
+
+    /** Include paths as written, in order, and the top-level declared names of a file. */
+    public record Summary(@NotNull List<String> includes, @NotNull Set<String> declarations) {
+    }
+
+    @Override
+    @NotNull
+    public ID<Integer, Summary> getName() {
+        return NAME;
+    }
+
+    @Override
+    @NotNull
+    public SingleEntryIndexer<Summary> getIndexer() {
+        return new SingleEntryIndexer<>(false) {
+            @Override
+            @Nullable
+            protected Summary computeValue(@NotNull FileContent inputData) {
+                PsiFile file = inputData.getPsiFile();
+                return file instanceof PyFile ? computeSummary(file) : null;
+            }
+        };
+    }
+
+    @Override
+    @NotNull
+    public DataExternalizer<Summary> getValueExternalizer() {
+        return SummaryExternalizer.INSTANCE;
+    }
+
+    @Override
+    @NotNull
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> CYTHON_EXTENSIONS.contains(file.getExtension());
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    /**
+     * Returns the indexed summary of a file, or null while indexing or for non-Cython files.
+     */
+    @Nullable
+    public static Summary getSummary(@NotNull VirtualFile file, @NotNull Project project) {
+        if (DumbService.isDumb(project)) return null;
+        if (!CYTHON_EXTENSIONS.contains(file.getExtension())) return null;
+        Collection<Summary> values = FileBasedIndex.getInstance().getFileData(NAME, file, project).values();
+        return values.isEmpty() ? null : values.iterator().next();
+    }
+
+    @NotNull
+    private static Summary computeSummary(@NotNull PsiFile file) {
+        List<String> includes = new ArrayList<>();
+        Set<String> declarations = new LinkedHashSet<>();
+        for (PsiElement child : file.getChildren()) {
+            if (child instanceof CythonIncludeStatement include) {
+                PyStringLiteralExpression path = PsiTreeUtil.getChildOfType(include, PyStringLiteralExpression.class);
+                if (path != null) includes.add(path.getStringValue());
+            } else if (child instanceof CythonNamedElement named && named.getName() != null) {
+                declarations.add(named.getName());
+            }
+        }
+        return new Summary(List.copyOf(includes), Set.copyOf(declarations));
+    }
+
+    private static final class SummaryExternalizer implements DataExternalizer<Summary> {
+        static final SummaryExternalizer INSTANCE = new SummaryExternalizer();
+
+        @Override
+        public void save(@NotNull DataOutput out, Summary value) throws IOException {
+            writeStrings(out, value.includes());
+            writeStrings(out, value.declarations());
+        }
+
+        @Override
+        public Summary read(@NotNull DataInput in) throws IOException {
+            List<String> includes = readStrings(in);
+            Set<String> declarations = Set.copyOf(readStrings(in));
+            return new Summary(includes, declarations);
+        }
+
+        private static void writeStrings(@NotNull DataOutput out, @NotNull Collection<String> strings) throws IOException {
+            DataInputOutputUtil.writeINT(out, strings.size());
+            for (String string : strings) {
+                IOUtil.writeUTF(out, string);
+            }
+        }
+
+        @NotNull
+        private static List<String> readStrings(@NotNull DataInput in) throws IOException {
+            int size = DataInputOutputUtil.readINT(in);
+            List<String> strings = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                strings.add(IOUtil.readUTF(in));
+            }
+            return List.copyOf(strings);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.cythonfix.inspection;
+
+import com.cythonfix.analysis.CythonDirectives;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.type.CythonDeclaredType;
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyElementVisitor;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyLoopStatement;
+import com.jetbrains.python.psi.PyNumericLiteralExpression;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.PySliceExpression;
+import com.jetbrains.python.psi.PySliceItem;
+import com.jetbrains.python.psi.PySubscriptionExpression;
+import com.jetbrains.python.psi.PyTupleExpression;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Marks memoryview indexing inside loops that Cython compiles with runtime checks because of
+ * the effective {@code boundscheck}, {@code wraparound} and {@code initializedcheck}
+ * directives, resolved by {@link CythonDirectives}.
+ *
+ * Negative-index checks are not reported for indices that can't be negative: non-negative
+ * integer literals and names declared with an unsigned type. Slicing is not element access and
+ * is skipped.
+ */
+public class CythonCheckedIndexingInspection extends LocalInspectionTool {
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!CythonPsiUtil.isInCythonFile(holder.getFile())) return PsiElementVisitor.EMPTY_VISITOR;
+
+        return new PyElementVisitor() {
+            @Override
+            public void visitPySubscriptionExpression(@NotNull PySubscriptionExpression node) {
+                if (!(node.getOperand() instanceof PyReferenceExpression operand) || operand.isQualified()) return;
+                String name = operand.getReferencedName();
+                ScopeOwner owner = ScopeUtil.getScopeOwner(node);
+                if (name == null || owner == null || !isInLoop(node, owner)) return;
+                CythonDeclaredType type = CythonDeclaredTypes.findDeclaredType(owner, name);
+                if (type == null || !type.isMemoryView()) return;
+
+                List<PyExpression> indices = getIndices(node);
+                if (indices.isEmpty()) return;
+                CythonDirectives directives = CythonDirectives.at(node);
+                if (!directives.hasIndexChecks()) return;
+
+                List<String> checks = new ArrayList<>();
+                if (directives.boundscheck()) checks.add("bounds");
+                if (directives.wraparound() && !indices.stream().allMatch(index -> isNonNegative(index, owner))) {
+                    checks.add("negative-index");
+                }
+                if (directives.initializedcheck()) checks.add("initialization");
+                if (checks.isEmpty()) return;
+
+                holder.registerProblem(node, "Indexing memoryview '" + name + "' in a loop includes "
+                        + String.join(", ", checks) + " checks");
+            }
+        };
+    }
+
+    /** Returns true if a for or while loop of the same scope encloses the element. */
+    private static boolean isInLoop(@NotNull PsiElement element, @NotNull ScopeOwner owner) {
+        for (PsiElement parent = element.getParent(); parent != null && parent != owner; parent = parent.getParent()) {
+            if (parent instanceof PyLoopStatement) return true;
+        }
+        return false;
+    }
+
+    /** Returns the element indices of the subscription, or an empty list for slicing. */
+    @NotNull
+    private static List<PyExpression> getIndices(@NotNull PySubscriptionExpression node) {
+        PyExpression index = node.getIndexExpression();
+        if (index == null) return List.of();
+        List<PyExpression> indices = index instanceof PyTupleExpression tuple ? List.of(tuple.getElements()) : List.of(index);
+        for (PyExpression item : indices) {
+            if (item instanceof PySliceExpression || item instanceof PySliceItem) return List.of();
+        }
+        return indices;
+    }
+
+    private static boolean isNonNegative(@NotNull PyExpression index, @NotNull ScopeOwner owner) {
+        if (index instanceof PyNumericLiteralExpression literal) return literal.isIntegerLiteral();
+        if (!(index instanceof PyReferenceExpression reference) || reference.isQualified()) return false;
+        String name = reference.getReferencedName();
+        CythonDeclaredType type = name != null ? CythonDeclaredTypes.findDeclaredType(owner, name) : null;
+        return type != null && !type.isPointer()
+                && (type.baseName().startsWith("unsigned") || type.baseName().equals("size_t"));
+    }
+}
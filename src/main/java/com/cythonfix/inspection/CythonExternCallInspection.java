@@ -0,0 +1,116 @@
+package com.cythonfix.inspection;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.type.CythonCTypes;
+import com.cythonfix.type.CythonDeclaredType;
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.cythonfix.type.CythonSignature;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyElementVisitor;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyKeywordArgument;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.PyStarArgument;
+import com.jetbrains.python.psi.resolve.PyResolveContext;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * Checks calls to {@code cdef extern} functions against their cached {@link CythonSignature}:
+ * the number of arguments, and arguments whose declared C type can't be passed to the
+ * parameter, i.e. a C number where a pointer is expected, a pointer or array where a number is
+ * expected, or a memoryview where a pointer is expected. C arrays decay to pointers and may be
+ * passed where a pointer is expected.
+ *
+ * Only arguments that are names with a C declaration are type-checked; everything else is left
+ * to the compiler.
+ */
+public class CythonExternCallInspection extends LocalInspectionTool {
+
+    private static final Set<CythonCTypes.Kind> NUMERIC_KINDS = Set.of(
+            CythonCTypes.Kind.INTEGER, CythonCTypes.Kind.FLOAT, CythonCTypes.Kind.COMPLEX, CythonCTypes.Kind.BOOL);
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!CythonPsiUtil.isInCythonFile(holder.getFile())) return PsiElementVisitor.EMPTY_VISITOR;
+        TypeEvalContext context = TypeEvalContext.codeAnalysis(holder.getProject(), holder.getFile());
+
+        return new PyElementVisitor() {
+            @Override
+            public void visitPyCallExpression(@NotNull PyCallExpression call) {
+                if (!(call.getCallee() instanceof PyReferenceExpression callee)) return;
+                PsiElement target = callee.getReference(PyResolveContext.defaultContext(context)).resolve();
+                if (!(target instanceof PyFunction function) || function.getContainingClass() != null) return;
+                if (!CythonPsiUtil.isInCythonFile(function)) return;
+                CythonSignature signature = CythonSignature.of(function);
+                if (!signature.extern()) return;
+
+                PyExpression[] arguments = call.getArguments();
+                for (PyExpression argument : arguments) {
+                    if (argument instanceof PyStarArgument || argument instanceof PyKeywordArgument) return;
+                }
+
+                int max = signature.maxCount();
+                if (arguments.length < signature.requiredCount() || max >= 0 && arguments.length > max) {
+                    holder.registerProblem(call.getArgumentList() != null ? call.getArgumentList() : call,
+                            "C function '" + function.getName() + signature.getPresentableParameters() + "' takes "
+                                    + describeArity(signature) + ", got " + arguments.length);
+                    return;
+                }
+
+                ScopeOwner owner = ScopeUtil.getScopeOwner(call);
+                if (owner == null) return;
+                for (int i = 0; i < arguments.length && i < signature.parameters().size(); i++) {
+                    CythonSignature.Parameter parameter = signature.parameters().get(i);
+                    String problem = getTypeProblem(arguments[i], parameter, owner);
+                    if (problem != null) holder.registerProblem(arguments[i], problem);
+                }
+            }
+        };
+    }
+
+    @NotNull
+    private static String describeArity(@NotNull CythonSignature signature) {
+        int required = signature.requiredCount();
+        int max = signature.maxCount();
+        String count = max < 0 ? "at least " + required : required == max ? String.valueOf(max) : required + " to " + max;
+        return count + (max == 1 && required == 1 ? " argument" : " arguments");
+    }
+
+    @Nullable
+    private static String getTypeProblem(@NotNull PyExpression argument,
+                                         @NotNull CythonSignature.Parameter parameter,
+                                         @NotNull ScopeOwner owner) {
+        CythonDeclaredType expected = parameter.type();
+        if (expected == null || expected.isMemoryView()) return null;
+        if (!(argument instanceof PyReferenceExpression reference) || reference.isQualified()) return null;
+        String name = reference.getReferencedName();
+        CythonDeclaredType actual = name != null ? CythonDeclaredTypes.findDeclaredType(owner, name) : null;
+        if (actual == null) return null;
+
+        String expectedText = expected.getPresentableText();
+        if (expected.isPointer()) {
+            if (actual.isMemoryView()) {
+                return "Memoryview '" + name + "' passed as '" + expectedText + "'; pass &" + name + "[0] instead";
+            }
+            if (!actual.isPointer() && !actual.isArray() && NUMERIC_KINDS.contains(CythonCTypes.classify(actual))) {
+                return "'" + name + "' of type '" + actual.getPresentableText() + "' passed as pointer '" + expectedText + "'";
+            }
+        } else if ((actual.isPointer() || actual.isArray()) && NUMERIC_KINDS.contains(CythonCTypes.classify(expected))) {
+            return (actual.isArray() ? "Array '" : "Pointer '") + name + "' of type '" + actual.getPresentableText()
+                    + "' passed as '" + expectedText + "'";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.cythonfix.inspection;
+
+import com.cythonfix.analysis.CythonGilSummaries;
+import com.cythonfix.psi.CythonCimports;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.util.QualifiedName;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyClass;
+import com.jetbrains.python.psi.PyElementVisitor;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.resolve.PyResolveContext;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * Reports calls that need the GIL inside nogil regions: {@code with nogil:} blocks, bodies of
+ * nogil functions and {@code prange(..., nogil=True)} loops.
+ *
+ * A call needs the GIL if its callee is a Python class, a def function, Python code, or a
+ * cdef function without {@code nogil}/{@code with gil}, as summarized by
+ * {@link CythonGilSummaries}. Names cimported from {@code libc}, {@code libcpp} and
+ * {@code posix} are nogil-safe; {@code cpython} functions are not. Builtins that Cython
+ * compiles to C on C arguments ({@code range}, {@code abs}, {@code sizeof}, ...) and the
+ * compiler's own {@code cython} module ({@code cython.parallel.threadid()}, {@code dereference}
+ * from {@code cython.operator}) are allowed. Constructing a {@code cppclass} is plain C++, and
+ * unresolved calls are not reported.
+ */
+public class CythonGilRequiringCallInspection extends LocalInspectionTool {
+
+    private static final Set<String> NOGIL_BUILTINS = Set.of(
+            "range", "prange", "sizeof", "typeof", "address", "abs", "min", "max"
+    );
+
+    private static final Set<String> NOGIL_PACKAGES = Set.of("libc", "libcpp", "posix", "cython");
+
+    private static final String CPYTHON_PACKAGE = "cpython";
+
+    private static final String CYTHON_MODULE = "cython";
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!CythonPsiUtil.isInCythonFile(holder.getFile())) return PsiElementVisitor.EMPTY_VISITOR;
+        TypeEvalContext context = TypeEvalContext.codeAnalysis(holder.getProject(), holder.getFile());
+        CythonCimports cimports = CythonCimports.of(holder.getFile());
+
+        return new PyElementVisitor() {
+            @Override
+            public void visitPyCallExpression(@NotNull PyCallExpression call) {
+                if (!(call.getCallee() instanceof PyReferenceExpression callee)) return;
+                if (!CythonGilSummaries.isInNogilRegion(call)) return;
+
+                String problem = getProblem(callee, cimports, context);
+                if (problem != null) holder.registerProblem(callee, problem);
+            }
+        };
+    }
+
+    @Nullable
+    private static String getProblem(
+            @NotNull PyReferenceExpression callee,
+            @NotNull CythonCimports cimports,
+            @NotNull TypeEvalContext context) {
+
+        String name = callee.getReferencedName();
+        if (name == null) return null;
+
+        String module = getCimportedModule(callee, name, cimports);
+        if (module != null) {
+            String root = module.split("\\.")[0];
+            if (NOGIL_PACKAGES.contains(root)) return null;
+            if (CPYTHON_PACKAGE.equals(root)) {
+                return "Python C-API function '" + name + "' requires the GIL inside a nogil block";
+            }
+        }
+        if (!callee.isQualified() && NOGIL_BUILTINS.contains(name)) return null;
+
+        PsiElement target = callee.getReference(PyResolveContext.defaultContext(context)).resolve();
+        if (target instanceof PyClass cls && !isCppClass(cls)) {
+            return "Creating Python object '" + name + "' requires the GIL inside a nogil block";
+        }
+        if (target instanceof PyFunction function
+                && !CythonGilSummaries.getRequirement(function).isCallableWithoutGil()) {
+            return CythonPsiUtil.isCFunction(function)
+                    ? "Calling cdef function '" + name + "' that is not declared nogil requires the GIL"
+                    : "Calling Python function '" + name + "' requires the GIL inside a nogil block";
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String getCimportedModule(
+            @NotNull PyReferenceExpression callee,
+            @NotNull String name,
+            @NotNull CythonCimports cimports) {
+
+        PyExpression qualifier = callee.getQualifier();
+        if (qualifier == null) {
+            CythonCimports.ImportedName imported = cimports.getName(name);
+            return imported != null ? imported.module() : null;
+        }
+        if (!(qualifier instanceof PyReferenceExpression qualifierReference)) return null;
+        QualifiedName qualifiedName = qualifierReference.asQualifiedName();
+        if (qualifiedName == null) return null;
+
+        String module = cimports.getModule(qualifiedName.toString());
+        if (module != null) return module;
+
+        // cython.parallel.threadid() after cimport cython, or the module in pure Python mode
+        String root = qualifiedName.getFirstComponent();
+        if (root == null) return null;
+        String rootModule = cimports.getModule(root);
+        if (rootModule != null) return rootModule;
+        return CYTHON_MODULE.equals(root) ? CYTHON_MODULE : null;
+    }
+
+    private static boolean isCppClass(@NotNull PyClass cls) {
+        return CythonPsiUtil.startsWithWords(cls, "cdef", "cppclass")
+                || CythonPsiUtil.startsWithWords(cls, "cppclass");
+    }
+}
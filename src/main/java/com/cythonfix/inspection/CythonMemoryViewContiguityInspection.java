@@ -0,0 +1,215 @@
+package com.cythonfix.inspection;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.type.CythonDeclaredType;
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.cythonfix.type.CythonMemoryView;
+import com.cythonfix.type.CythonSignature;
+import com.intellij.codeInsight.intention.preview.IntentionPreviewInfo;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.util.PsiNavigateUtil;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyElementVisitor;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyKeywordArgument;
+import com.jetbrains.python.psi.PyNamedParameter;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.PySliceItem;
+import com.jetbrains.python.psi.PySubscriptionExpression;
+import com.jetbrains.python.psi.PyTupleExpression;
+import com.jetbrains.python.psi.resolve.PyResolveContext;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports memoryview arguments of cdef and cpdef calls whose dimensions or memory layout don't
+ * match the parameter's declaration, e.g. a strided {@code double[:]} or a column slice
+ * {@code a[:, 0]} passed to {@code double[::1]}, or a C-contiguous array passed where a
+ * Fortran-contiguous one is declared. Cython rejects such calls, and callers usually work around
+ * them with {@code np.ascontiguousarray} copies.
+ *
+ * Parameters come from the cached {@link CythonSignature} of the resolved callee; arguments
+ * are names declared as memoryviews and slices of them. The quick-fix navigates to the
+ * parameter declaration.
+ */
+public class CythonMemoryViewContiguityInspection extends LocalInspectionTool {
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!CythonPsiUtil.isInCythonFile(holder.getFile())) return PsiElementVisitor.EMPTY_VISITOR;
+        TypeEvalContext context = TypeEvalContext.codeAnalysis(holder.getProject(), holder.getFile());
+
+        return new PyElementVisitor() {
+            @Override
+            public void visitPyCallExpression(@NotNull PyCallExpression call) {
+                if (!(call.getCallee() instanceof PyReferenceExpression callee)) return;
+                ScopeOwner owner = ScopeUtil.getScopeOwner(call);
+                if (owner == null) return;
+                PsiElement target = callee.getReference(PyResolveContext.defaultContext(context)).resolve();
+                if (!(target instanceof PyFunction function) || !CythonPsiUtil.isCFunction(function)) return;
+                CythonSignature signature = CythonSignature.of(function);
+                if (!signature.hasMemoryViews()) return;
+
+                // Bound method calls don't pass self explicitly
+                int offset = callee.isQualified() && function.getContainingClass() != null ? 1 : 0;
+                int position = 0;
+                for (PyExpression argument : call.getArguments()) {
+                    CythonSignature.Parameter parameter;
+                    PyExpression value = argument;
+                    if (argument instanceof PyKeywordArgument keyword) {
+                        String keywordName = keyword.getKeyword();
+                        parameter = keywordName != null ? signature.find(keywordName) : null;
+                        value = keyword.getValueExpression();
+                    } else {
+                        parameter = getPositional(signature, offset + position++);
+                    }
+                    if (parameter == null || value == null) continue;
+                    check(holder, value, parameter, owner);
+                }
+            }
+        };
+    }
+
+    @Nullable
+    private static CythonSignature.Parameter getPositional(@NotNull CythonSignature signature, int index) {
+        if (index >= signature.parameters().size()) return null;
+        CythonSignature.Parameter parameter = signature.parameters().get(index);
+        if (!(parameter.element() instanceof PyNamedParameter named)
+                || named.isPositionalContainer() || named.isKeywordContainer()) {
+            return null;
+        }
+        return parameter;
+    }
+
+    private static void check(@NotNull ProblemsHolder holder,
+                              @NotNull PyExpression argument,
+                              @NotNull CythonSignature.Parameter parameter,
+                              @NotNull ScopeOwner owner) {
+        CythonDeclaredType declared = parameter.type();
+        if (declared == null || declared.memoryView() == null) return;
+        CythonMemoryView expected = declared.memoryView();
+        CythonMemoryView actual = getMemoryView(argument, owner);
+        if (actual == null) return;
+
+        String parameterName = parameter.name() != null ? "'" + parameter.name() + "'" : "parameter";
+        String problem = null;
+        if (actual.ndim() != expected.ndim()) {
+            problem = "Passing a " + actual.describe() + " memoryview to " + parameterName
+                    + " declared " + expected.ndim() + "-D";
+        } else if (!actual.isCompatibleLayout(expected)) {
+            problem = "Passing a " + actual.describe() + " memoryview to " + parameterName
+                    + " declared " + expected.describe() + " requires a contiguous copy";
+        }
+        if (problem != null) {
+            holder.registerProblem(argument, problem, new NavigateToParameterFix(parameter.element()));
+        }
+    }
+
+    /**
+     * Returns the memoryview an argument evaluates to: a name declared as a memoryview, or a
+     * subscript of one whose items are integer indices and plain slices.
+     */
+    @Nullable
+    private static CythonMemoryView getMemoryView(@NotNull PyExpression argument, @NotNull ScopeOwner owner) {
+        if (argument instanceof PyReferenceExpression reference) return getDeclaredView(reference, owner);
+        if (!(argument instanceof PySubscriptionExpression subscription)
+                || !(subscription.getOperand() instanceof PyReferenceExpression operand)) {
+            return null;
+        }
+        CythonMemoryView view = getDeclaredView(operand, owner);
+        PyExpression index = subscription.getIndexExpression();
+        if (view == null || index == null) return null;
+
+        List<PyExpression> items = index instanceof PyTupleExpression tuple ? List.of(tuple.getElements()) : List.of(index);
+        if (items.size() != view.ndim()) return null;
+        List<Integer> sliced = new ArrayList<>();
+        for (int axis = 0; axis < items.size(); axis++) {
+            if (items.get(axis) instanceof PySliceItem) sliced.add(axis);
+        }
+        if (sliced.isEmpty()) return null;
+        int first = sliced.get(0);
+        int last = sliced.get(sliced.size() - 1);
+        if (last - first + 1 != sliced.size()) return new CythonMemoryView(sliced.size(), CythonMemoryView.Layout.STRIDED);
+
+        // A C-contiguous view stays contiguous when the trailing axes are taken whole; only the
+        // outermost sliced axis may have bounds. Fortran order mirrors this on the leading axes.
+        CythonMemoryView.Layout layout = CythonMemoryView.Layout.STRIDED;
+        if (view.layout() == CythonMemoryView.Layout.C_CONTIGUOUS && last == items.size() - 1
+                && areWhole(items, first + 1, last) && isUnstrided(items.get(first))) {
+            layout = view.layout();
+        } else if (view.layout() == CythonMemoryView.Layout.F_CONTIGUOUS && first == 0
+                && areWhole(items, first, last - 1) && isUnstrided(items.get(last))) {
+            layout = view.layout();
+        }
+        return new CythonMemoryView(sliced.size(), layout);
+    }
+
+    private static boolean areWhole(@NotNull List<PyExpression> items, int from, int to) {
+        for (int axis = from; axis <= to; axis++) {
+            if (!(items.get(axis) instanceof PySliceItem slice)
+                    || slice.getLowerBound() != null || slice.getUpperBound() != null || slice.getStride() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUnstrided(@NotNull PyExpression item) {
+        return item instanceof PySliceItem slice && slice.getStride() == null;
+    }
+
+    @Nullable
+    private static CythonMemoryView getDeclaredView(@NotNull PyReferenceExpression reference, @NotNull ScopeOwner owner) {
+        String name = reference.isQualified() ? null : reference.getReferencedName();
+        CythonDeclaredType type = name != null ? CythonDeclaredTypes.findDeclaredType(owner, name) : null;
+        return type != null ? type.memoryView() : null;
+    }
+
+    private static final class NavigateToParameterFix implements LocalQuickFix {
+
+        private final SmartPsiElementPointer<PsiElement> myParameter;
+
+        NavigateToParameterFix(@NotNull PsiElement parameter) {
+            myParameter = SmartPointerManager.createPointer(parameter);
+        }
+
+        @Override
+        @NotNull
+        public String getFamilyName() {
+            return "Go to parameter declaration";
+        }
+
+        @Override
+        public boolean startInWriteAction() {
+            return false;
+        }
+
+        @Override
+        @NotNull
+        public IntentionPreviewInfo generatePreview(@NotNull Project project, @NotNull ProblemDescriptor previewDescriptor) {
+            return IntentionPreviewInfo.EMPTY;
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiElement parameter = myParameter.getElement();
+            if (parameter != null) PsiNavigateUtil.navigate(parameter);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cythonfix.inspection;
+
+import com.cythonfix.analysis.CythonPrangeAnalysis;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.psi.PsiElementVisitor;
+import com.jetbrains.python.psi.PyElementVisitor;
+import com.jetbrains.python.psi.PyForStatement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.intellij.codeInspection.options.OptPane.checkbox;
+
+/**
+ * Reports data races and Python object use in {@code cython.parallel.prange} loops, using the
+ * private/reduction/shared classification of {@link CythonPrangeAnalysis}: shared writes that
+ * don't depend on the loop index, reductions read inside the loop, private variables read before
+ * they are assigned, and variables without a C type outside {@code with gil:} blocks. Optionally
+ * lists the inferred reductions on the loop target, as information without highlighting.
+ */
+public class CythonPrangeInspection extends LocalInspectionTool {
+
+    public boolean reportReductions = true;
+
+    @Override
+    @NotNull
+    public OptPane getOptionsPane() {
+        return OptPane.pane(checkbox("reportReductions", "Show inferred reductions"));
+    }
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!CythonPsiUtil.isInCythonFile(holder.getFile())) return PsiElementVisitor.EMPTY_VISITOR;
+
+        return new PyElementVisitor() {
+            @Override
+            public void visitPyForStatement(@NotNull PyForStatement node) {
+                CythonPrangeAnalysis.Result result = CythonPrangeAnalysis.analyze(node);
+                if (result == null) return;
+
+                for (CythonPrangeAnalysis.Problem problem : result.problems()) {
+                    holder.registerProblem(problem.element(), problem.message());
+                }
+
+                List<CythonPrangeAnalysis.Variable> reductions = result.getReductions();
+                if (isOnTheFly && reportReductions && !reductions.isEmpty() && node.getForPart().getTarget() != null) {
+                    String description = reductions.stream()
+                            .map(variable -> variable.name() + " (" + variable.operator() + ")")
+                            .collect(Collectors.joining(", "));
+                    holder.registerProblem(node.getForPart().getTarget(), "Reductions: " + description,
+                            ProblemHighlightType.INFORMATION);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,237 @@
+package com.cythonfix.inspection;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.type.CythonDeclaredType;
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.python.codeInsight.controlflow.ControlFlowCache;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyElementVisitor;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyExpressionStatement;
+import com.jetbrains.python.psi.PyForStatement;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.PyStatement;
+import com.jetbrains.python.psi.PyStringLiteralExpression;
+import com.jetbrains.python.psi.PySubscriptionExpression;
+import com.jetbrains.python.psi.PyTargetExpression;
+import com.jetbrains.python.psi.PyTupleExpression;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reports loop counters and memoryview indices without a C type inside cdef and cpdef
+ * functions, where Cython falls back to Python object arithmetic: the target of
+ * {@code for i in range(n)} / {@code prange(n)}, and local names used to index a typed
+ * memoryview, e.g. {@code i} in {@code arr[i, 0]}.
+ *
+ * Declarations come from the per-scope tables in {@link CythonDeclaredTypes}, so a check is a
+ * map lookup. Each name is reported once per function, at its first occurrence; parameters are
+ * typed in the signature and never reported. The quick-fix declares the name at the top of
+ * the function body, after the docstring, as {@code Py_ssize_t}, or as {@code int} when every
+ * bound of the range is itself declared {@code int}. It is not offered for bodies that start
+ * on the signature line.
+ */
+public class CythonUntypedIndexInspection extends LocalInspectionTool {
+
+    private static final Set<String> RANGE_FUNCTIONS = Set.of("range", "prange");
+
+    private static final String INDEX_TYPE = "Py_ssize_t";
+    private static final String INT_TYPE = "int";
+
+    /** An offset to insert a declaration at, either at a line start or after a line's end. */
+    private record Insertion(int offset, @NotNull String indent, boolean afterLine) {
+    }
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!CythonPsiUtil.isInCythonFile(holder.getFile())) return PsiElementVisitor.EMPTY_VISITOR;
+        Document document = PsiDocumentManager.getInstance(holder.getProject()).getDocument(holder.getFile());
+
+        return new PyElementVisitor() {
+            private final Set<String> myReported = new HashSet<>();
+
+            @Override
+            public void visitPyForStatement(@NotNull PyForStatement node) {
+                PyFunction function = getCFunction(node);
+                if (function == null) return;
+                if (!(node.getForPart().getTarget() instanceof PyTargetExpression target)) return;
+                if (!(node.getForPart().getSource() instanceof PyCallExpression source)) return;
+                if (!(source.getCallee() instanceof PyReferenceExpression callee)
+                        || !RANGE_FUNCTIONS.contains(callee.getReferencedName())) {
+                    return;
+                }
+
+                String name = target.getName();
+                if (name == null || CythonDeclaredTypes.getDeclaredType(function, name) != null) return;
+                if (isParameter(name, function) || !markReported(function, name)) return;
+
+                String type = hasIntBounds(source, function) ? INT_TYPE : INDEX_TYPE;
+                holder.registerProblem(target,
+                        "Loop variable '" + name + "' has no C type; the loop runs on Python integers",
+                        createFixes(function, name, type));
+            }
+
+            @Override
+            public void visitPySubscriptionExpression(@NotNull PySubscriptionExpression node) {
+                PyFunction function = getCFunction(node);
+                if (function == null) return;
+                if (!(node.getOperand() instanceof PyReferenceExpression operand) || operand.isQualified()) return;
+                String operandName = operand.getReferencedName();
+                CythonDeclaredType operandType = operandName != null
+                        ? CythonDeclaredTypes.findDeclaredType(function, operandName)
+                        : null;
+                if (operandType == null || !operandType.isMemoryView()) return;
+
+                PyExpression index = node.getIndexExpression();
+                List<PyExpression> indices = index instanceof PyTupleExpression tuple
+                        ? List.of(tuple.getElements())
+                        : index != null ? List.of(index) : List.of();
+                for (PyExpression element : indices) {
+                    if (!(element instanceof PyReferenceExpression reference) || reference.isQualified()) continue;
+                    String name = reference.getReferencedName();
+                    if (name == null || !isUntypedLocal(name, function)) continue;
+                    if (!markReported(function, name)) continue;
+
+                    holder.registerProblem(reference,
+                            "Index '" + name + "' of memoryview '" + operandName
+                                    + "' has no C type; indexing goes through Python",
+                            createFixes(function, name, INDEX_TYPE));
+                }
+            }
+
+            private boolean markReported(@NotNull PyFunction function, @NotNull String name) {
+                return myReported.add(function.getTextOffset() + ":" + name);
+            }
+
+            @NotNull
+            private LocalQuickFix[] createFixes(
+                    @NotNull PyFunction function, @NotNull String name, @NotNull String type) {
+                if (document == null || findInsertion(function, document) == null) return LocalQuickFix.EMPTY_ARRAY;
+                return new LocalQuickFix[]{new DeclareCTypeFix(name, type)};
+            }
+        };
+    }
+
+    /** Returns the cdef or cpdef function whose own scope contains the element, or null. */
+    @Nullable
+    private static PyFunction getCFunction(@NotNull PsiElement element) {
+        ScopeOwner owner = ScopeUtil.getScopeOwner(element);
+        return owner instanceof PyFunction function && CythonPsiUtil.isCFunction(function) ? function : null;
+    }
+
+    /** Returns true for names assigned in the function without a C declaration there. */
+    private static boolean isUntypedLocal(@NotNull String name, @NotNull PyFunction function) {
+        return CythonDeclaredTypes.getDeclaredType(function, name) == null
+                && ControlFlowCache.getScope(function).containsDeclaration(name)
+                && !isParameter(name, function);
+    }
+
+    private static boolean isParameter(@NotNull String name, @NotNull PyFunction function) {
+        return function.getParameterList().findParameterByName(name) != null;
+    }
+
+    /**
+     * Returns where a declaration goes in the function body: before the first statement after
+     * the docstring, or after a body that is only a docstring. Returns null for bodies that
+     * start on the signature line, like {@code def f(): pass}.
+     */
+    @Nullable
+    private static Insertion findInsertion(@NotNull PyFunction function, @NotNull Document document) {
+        PyStatement[] statements = function.getStatementList().getStatements();
+        if (statements.length == 0) return null;
+
+        PyStatement first = statements[0];
+        int line = document.getLineNumber(first.getTextOffset());
+        if (line == document.getLineNumber(function.getTextOffset())) return null;
+        int lineStart = document.getLineStartOffset(line);
+        CharSequence indent = document.getCharsSequence().subSequence(lineStart, first.getTextOffset());
+        if (!StringUtil.isEmptyOrSpaces(indent)) return null;
+
+        boolean docstring = first instanceof PyExpressionStatement expression
+                && expression.getExpression() instanceof PyStringLiteralExpression;
+        if (!docstring) return new Insertion(lineStart, indent.toString(), false);
+
+        int docstringEnd = document.getLineNumber(first.getTextRange().getEndOffset());
+        if (statements.length > 1) {
+            PyStatement next = statements[1];
+            int nextLine = document.getLineNumber(next.getTextOffset());
+            if (nextLine == docstringEnd) return null;
+            int nextLineStart = document.getLineStartOffset(nextLine);
+            CharSequence nextIndent = document.getCharsSequence().subSequence(nextLineStart, next.getTextOffset());
+            return StringUtil.isEmptyOrSpaces(nextIndent)
+                    ? new Insertion(nextLineStart, nextIndent.toString(), false)
+                    : null;
+        }
+        return new Insertion(document.getLineEndOffset(docstringEnd), indent.toString(), true);
+    }
+
+    private static boolean hasIntBounds(@NotNull PyCallExpression range, @NotNull PyFunction function) {
+        PyExpression[] arguments = range.getArguments();
+        if (arguments.length == 0) return false;
+        for (PyExpression argument : arguments) {
+            if (!(argument instanceof PyReferenceExpression reference) || reference.isQualified()) return false;
+            String name = reference.getReferencedName();
+            CythonDeclaredType type = name != null ? CythonDeclaredTypes.findDeclaredType(function, name) : null;
+            if (type == null || type.isPointer() || !type.baseName().equals(INT_TYPE)) return false;
+        }
+        return true;
+    }
+
+    private static final class DeclareCTypeFix implements LocalQuickFix {
+
+        private final String myName;
+        private final String myType;
+
+        DeclareCTypeFix(@NotNull String name, @NotNull String type) {
+            myName = name;
+            myType = type;
+        }
+
+        @Override
+        @NotNull
+        public String getName() {
+            return "Declare 'cdef " + myType + " " + myName + "'";
+        }
+
+        @Override
+        @NotNull
+        public String getFamilyName() {
+            return "Declare C type";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PyFunction function = PsiTreeUtil.getParentOfType(descriptor.getPsiElement(), PyFunction.class);
+            if (function == null) return;
+
+            PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+            Document document = documentManager.getDocument(function.getContainingFile());
+            if (document == null) return;
+            Insertion insertion = findInsertion(function, document);
+            if (insertion == null) return;
+
+            String declaration = insertion.indent() + "cdef " + myType + " " + myName;
+            document.insertString(insertion.offset(), insertion.afterLine() ? "\n" + declaration : declaration + "\n");
+            documentManager.commitDocument(document);
+        }
+    }
+}
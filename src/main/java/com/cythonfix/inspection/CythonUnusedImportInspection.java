@@ -0,0 +1,242 @@
+package com.cythonfix.inspection;
+
+import com.cythonfix.psi.CythonFileNames;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.resolve.CythonIncludeResolveProvider;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.NotNullLazyValue;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.python.pro.cython.psi.CythonIncludeStatement;
+import com.jetbrains.python.psi.PyFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reports {@code include} statements whose file declares nothing the including file uses, and
+ * cimported names and modules that are never referenced.
+ *
+ * Works from the cached per-file name sets of {@link CythonFileNames}: an include is unused if
+ * none of the names exported by the included file (and the files it includes) appear in the
+ * including file or its other includes. Included files with top-level code or star imports are
+ * never reported. Cimports in {@code .pxd} files declare the module's interface and are not
+ * checked. {@code .pxi} files are not checked at all, since their includes and cimports serve
+ * the files that include them. The quick-fixes delete the statement, or the unused names of a
+ * cimport list.
+ */
+public class CythonUnusedImportInspection extends LocalInspectionTool {
+
+    private static final String PXD_EXTENSION = "pxd";
+    private static final String PXI_EXTENSION = "pxi";
+
+    private static final Pattern FROM_CIMPORT = Pattern.compile("from\\s+[\\w.]+\\s+cimport\\s+");
+    private static final Pattern CIMPORT = Pattern.compile("cimport\\s+");
+    private static final Pattern ALIASED_NAME = Pattern.compile("([\\w.]+)(?:\\s+as\\s+(\\w+))?");
+
+    /** A name in a cimport list, with its range in the statement text. */
+    private record CimportItem(@NotNull String localName, @NotNull TextRange range) {
+    }
+
+    /** The items of a cimport statement and the range of the list in the statement text. */
+    private record CimportList(@NotNull List<CimportItem> items, @NotNull TextRange range) {
+    }
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        if (!(holder.getFile() instanceof PyFile file) || !CythonPsiUtil.isInCythonFile(file)) {
+            return PsiElementVisitor.EMPTY_VISITOR;
+        }
+        String extension = file.getVirtualFile() != null ? file.getVirtualFile().getExtension() : null;
+        if (PXI_EXTENSION.equals(extension)) return PsiElementVisitor.EMPTY_VISITOR;
+        boolean checkCimports = !PXD_EXTENSION.equals(extension);
+        NotNullLazyValue<List<PyFile>> closure = NotNullLazyValue.lazy(
+                () -> CythonIncludeResolveProvider.getIncludeClosure(file));
+
+        return new PsiElementVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (element.getParent() != file) return;
+                if (element instanceof CythonIncludeStatement include) {
+                    checkInclude(holder, include, file, closure.getValue());
+                } else if (checkCimports && CythonPsiUtil.isCimportStatement(element)) {
+                    checkCimport(holder, element, file, closure.getValue());
+                }
+            }
+        };
+    }
+
+    private static void checkInclude(@NotNull ProblemsHolder holder,
+                                     @NotNull CythonIncludeStatement include,
+                                     @NotNull PyFile file,
+                                     @NotNull List<PyFile> closure) {
+        if (!(include.getReference().resolve() instanceof PyFile included)) return;
+
+        Set<PyFile> includedClosure = new LinkedHashSet<>();
+        includedClosure.add(included);
+        includedClosure.addAll(CythonIncludeResolveProvider.getIncludeClosure(included));
+
+        Set<String> exported = new HashSet<>();
+        for (PyFile part : includedClosure) {
+            CythonFileNames names = CythonFileNames.of(part);
+            if (names.opaque()) return;
+            exported.addAll(names.exported());
+        }
+
+        if (isUsed(exported, CythonFileNames.of(file).used())) return;
+        for (PyFile other : closure) {
+            if (!includedClosure.contains(other) && isUsed(exported, CythonFileNames.of(other).used())) return;
+        }
+        holder.registerProblem(include, "Included file '" + included.getName() + "' declares nothing used here",
+                ProblemHighlightType.LIKE_UNUSED_SYMBOL, new RemoveUnusedImportFix("Remove include", Set.of()));
+    }
+
+    private static void checkCimport(@NotNull ProblemsHolder holder,
+                                     @NotNull PsiElement statement,
+                                     @NotNull PyFile file,
+                                     @NotNull List<PyFile> closure) {
+        CimportList list = parseCimportList(statement.getText());
+        if (list == null) return;
+
+        Set<String> used = new HashSet<>(CythonFileNames.of(file).used());
+        for (PyFile included : closure) {
+            used.addAll(CythonFileNames.of(included).used());
+        }
+
+        List<CimportItem> unused = new ArrayList<>();
+        for (CimportItem item : list.items()) {
+            if (!used.contains(item.localName())) unused.add(item);
+        }
+        if (unused.isEmpty()) return;
+
+        if (unused.size() == list.items().size()) {
+            holder.registerProblem(statement, "Unused cimport statement", ProblemHighlightType.LIKE_UNUSED_SYMBOL,
+                    new RemoveUnusedImportFix("Remove unused cimport", Set.of()));
+            return;
+        }
+        for (CimportItem item : unused) {
+            holder.registerProblem(statement, item.range(), "Unused cimport '" + item.localName() + "'",
+                    new RemoveUnusedImportFix("Remove unused cimport '" + item.localName() + "'", Set.of(item.localName())));
+        }
+    }
+
+    private static boolean isUsed(@NotNull Set<String> names, @NotNull Set<String> used) {
+        return !Collections.disjoint(names, used);
+    }
+
+    /**
+     * Parses the name list of a cimport statement. Returns null for statements with comments or
+     * line continuations, which are not rewritten.
+     */
+    @Nullable
+    private static CimportList parseCimportList(@NotNull String text) {
+        if (text.indexOf('#') >= 0 || text.indexOf('\\') >= 0) return null;
+        Matcher prefix = FROM_CIMPORT.matcher(text);
+        boolean from = prefix.lookingAt();
+        if (!from && !(prefix = CIMPORT.matcher(text)).lookingAt()) return null;
+
+        int start = prefix.end();
+        int end = text.length();
+        if (start < end && text.charAt(start) == '(') {
+            int close = text.lastIndexOf(')');
+            if (close < start) return null;
+            start++;
+            end = close;
+        }
+
+        List<CimportItem> items = new ArrayList<>();
+        int itemStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && text.charAt(i) != ',') continue;
+            String item = text.substring(itemStart, i);
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                Matcher name = ALIASED_NAME.matcher(trimmed);
+                if (!name.matches()) return null;
+                // cimport a.b binds the top-level package a
+                String localName = name.group(2) != null ? name.group(2)
+                        : from ? name.group(1) : name.group(1).split("\\.")[0];
+                int offset = itemStart + item.indexOf(trimmed);
+                items.add(new CimportItem(localName, new TextRange(offset, offset + trimmed.length())));
+            }
+            itemStart = i + 1;
+        }
+        return items.isEmpty() ? null : new CimportList(items, new TextRange(start, end));
+    }
+
+    /**
+     * Deletes the lines of a statement, or the given names from its cimport list.
+     */
+    private static final class RemoveUnusedImportFix implements LocalQuickFix {
+
+        private final String myName;
+        private final Set<String> myNames;
+
+        RemoveUnusedImportFix(@NotNull String name, @NotNull Set<String> names) {
+            myName = name;
+            myNames = names;
+        }
+
+        @Override
+        @NotNull
+        public String getName() {
+            return myName;
+        }
+
+        @Override
+        @NotNull
+        public String getFamilyName() {
+            return "Remove unused include or cimport";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiElement statement = descriptor.getPsiElement();
+            PsiFile file = statement.getContainingFile();
+            PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+            Document document = documentManager.getDocument(file);
+            if (document == null) return;
+            TextRange range = statement.getTextRange();
+
+            CimportList list = myNames.isEmpty() ? null : parseCimportList(statement.getText());
+            if (!myNames.isEmpty() && list == null) return;
+            List<String> kept = new ArrayList<>();
+            if (list != null) {
+                for (CimportItem item : list.items()) {
+                    if (!myNames.contains(item.localName())) kept.add(item.range().substring(statement.getText()));
+                }
+            }
+
+            if (kept.isEmpty()) {
+                int start = document.getLineStartOffset(document.getLineNumber(range.getStartOffset()));
+                int endLine = document.getLineNumber(range.getEndOffset());
+                int end = endLine + 1 < document.getLineCount()
+                        ? document.getLineStartOffset(endLine + 1)
+                        : document.getTextLength();
+                document.deleteString(start, end);
+            } else {
+                TextRange listRange = list.range().shiftRight(range.getStartOffset());
+                document.replaceString(listRange.getStartOffset(), listRange.getEndOffset(), String.join(", ", kept));
+            }
+            documentManager.commitDocument(document);
+        }
+    }
+}
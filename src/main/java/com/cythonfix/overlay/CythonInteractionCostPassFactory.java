@@ -0,0 +1,132 @@
+package com.cythonfix.overlay;
+
+import com.cythonfix.analysis.CythonInteractionCost;
+import com.cythonfix.editor.CythonLargeFileMode;
+import com.cythonfix.profile.CythonProfileArtifacts;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.codeHighlighting.TextEditorHighlightingPass;
+import com.intellij.codeHighlighting.TextEditorHighlightingPassFactory;
+import com.intellij.codeHighlighting.TextEditorHighlightingPassFactoryRegistrar;
+import com.intellij.codeHighlighting.TextEditorHighlightingPassRegistrar;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the {@link CythonInteractionOverlay} computation with the daemon while the overlay is
+ * enabled.
+ *
+ * Scores imported from the build's {@code cython -a} reports and line profiles
+ * ({@link CythonProfileArtifacts}) take precedence. Otherwise they are estimated by
+ * {@link CythonInteractionCost}, which caches them per function, so an edit only rescores the
+ * function it is in. Only lines in the range covered by the editor viewport are shaded, in files
+ * of any size; when scrolling leaves that range, {@link com.cythonfix.editor.CythonViewportListener}
+ * recomputes the overlay through {@link #refresh} instead of restarting the daemon.
+ */
+public class CythonInteractionCostPassFactory
+        implements TextEditorHighlightingPassFactory, TextEditorHighlightingPassFactoryRegistrar {
+
+    @Override
+    public void registerHighlightingPassFactory(@NotNull TextEditorHighlightingPassRegistrar registrar, @NotNull Project project) {
+        registrar.registerTextEditorHighlightingPass(this, null, null, false, -1);
+    }
+
+    @Override
+    @Nullable
+    public TextEditorHighlightingPass createHighlightingPass(@NotNull PsiFile file, @NotNull Editor editor) {
+        if (!(file instanceof PyFile)) return null;
+        if (!CythonInteractionOverlay.isEnabled()) return null;
+        if (!CythonPsiUtil.isInCythonFile(file)) return null;
+        return new Pass(file, editor);
+    }
+
+    /**
+     * Recomputes the overlay of one editor in the background, without restarting the daemon, e.g.
+     * when scrolling moved its covered range.
+     */
+    public static void refresh(@NotNull Editor editor, @NotNull PsiFile file) {
+        if (!CythonInteractionOverlay.isEnabled()) return;
+        Project project = file.getProject();
+        ReadAction.nonBlocking(() -> file.isValid() ? collectScores(file, editor) : Map.<Integer, Integer>of())
+                .withDocumentsCommitted(project)
+                .expireWith(project)
+                .expireWhen(editor::isDisposed)
+                .coalesceBy(editor, CythonInteractionCostPassFactory.class)
+                .finishOnUiThread(ModalityState.any(), scores -> CythonInteractionOverlay.apply(editor, scores))
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    /**
+     * Returns the scores of the lines in the editor's covered range, from imported reports if
+     * there are any, estimated otherwise.
+     */
+    @NotNull
+    private static Map<Integer, Integer> collectScores(@NotNull PsiFile file, @NotNull Editor editor) {
+        TextRange range = CythonLargeFileMode.getCoveredRange(editor);
+        if (range == null) return Map.of();
+        Document document = editor.getDocument();
+
+        VirtualFile virtualFile = file.getVirtualFile();
+        Map<Integer, Integer> imported = virtualFile != null
+                ? CythonProfileArtifacts.getInstance(file.getProject()).getScores(virtualFile)
+                : Map.of();
+        if (!imported.isEmpty()) {
+            int firstLine = document.getLineNumber(range.getStartOffset());
+            int lastLine = document.getLineNumber(range.getEndOffset());
+            Map<Integer, Integer> scores = new HashMap<>();
+            imported.forEach((line, score) -> {
+                if (line >= firstLine && line <= lastLine) scores.put(line, score);
+            });
+            return scores;
+        }
+
+        Map<Integer, Integer> scores = new HashMap<>();
+        for (PsiElement child : file.getChildren()) {
+            if (!range.intersects(child.getTextRange())) continue;
+            for (PyFunction function : PsiTreeUtil.findChildrenOfAnyType(child, false, PyFunction.class)) {
+                ProgressManager.checkCanceled();
+                scores.putAll(CythonInteractionCost.getLineScores(function, document));
+            }
+        }
+        return scores;
+    }
+
+    private static final class Pass extends TextEditorHighlightingPass {
+        private final PsiFile myFile;
+        private final Editor myEditor;
+        private Map<Integer, Integer> myScores = Map.of();
+
+        Pass(@NotNull PsiFile file, @NotNull Editor editor) {
+            super(file.getProject(), editor.getDocument(), false);
+            myFile = file;
+            myEditor = editor;
+        }
+
+        @Override
+        public void doCollectInformation(@NotNull ProgressIndicator progress) {
+            myScores = collectScores(myFile, myEditor);
+        }
+
+        @Override
+        public void doApplyInformationToEditor() {
+            CythonInteractionOverlay.apply(myEditor, myScores);
+        }
+    }
+}
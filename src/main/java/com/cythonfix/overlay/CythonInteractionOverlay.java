@@ -0,0 +1,101 @@
+package com.cythonfix.overlay;
+
+import com.cythonfix.analysis.CythonInteractionCost;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.editor.markup.HighlighterLayer;
+import com.intellij.openapi.editor.markup.LineMarkerRenderer;
+import com.intellij.openapi.editor.markup.MarkupModel;
+import com.intellij.openapi.editor.markup.RangeHighlighter;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.ui.JBColor;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gutter shading of per-line Python-interaction scores, in the spirit of the yellow lines of
+ * a {@code cython -a} report: the higher the score, the stronger the shade.
+ *
+ * The overlay is off by default and toggled for all editors at once; while it is on,
+ * {@link CythonInteractionCostPassFactory} refreshes it with the daemon.
+ */
+public final class CythonInteractionOverlay {
+
+    private static final String ENABLED_KEY = "cython.fix.interaction.overlay";
+
+    private static final Key<List<RangeHighlighter>> HIGHLIGHTERS = Key.create("cython.fix.interaction.highlighters");
+
+    private static final Color[] SHADES = new Color[CythonInteractionCost.MAX_SCORE + 1];
+
+    static {
+        for (int score = 1; score <= CythonInteractionCost.MAX_SCORE; score++) {
+            int alpha = 40 + 45 * score;
+            SHADES[score] = new JBColor(new Color(255, 200, 0, alpha), new Color(200, 150, 0, alpha));
+        }
+    }
+
+    private CythonInteractionOverlay() {
+    }
+
+    public static boolean isEnabled() {
+        return PropertiesComponent.getInstance().getBoolean(ENABLED_KEY, false);
+    }
+
+    public static void setEnabled(boolean enabled) {
+        PropertiesComponent.getInstance().setValue(ENABLED_KEY, enabled, false);
+        if (!enabled) {
+            for (Editor editor : EditorFactory.getInstance().getAllEditors()) {
+                clear(editor);
+            }
+        }
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            DaemonCodeAnalyzer.getInstance(project).restart();
+        }
+    }
+
+    /**
+     * Replaces the editor's shading with the given scores by document line.
+     */
+    public static void apply(@NotNull Editor editor, @NotNull Map<Integer, Integer> scores) {
+        clear(editor);
+        MarkupModel markupModel = editor.getMarkupModel();
+        int lineCount = editor.getDocument().getLineCount();
+        List<RangeHighlighter> highlighters = new ArrayList<>(scores.size());
+        scores.forEach((line, score) -> {
+            if (line < 0 || line >= lineCount || score <= 0) return;
+            RangeHighlighter highlighter = markupModel.addLineHighlighter(line, HighlighterLayer.FIRST, null);
+            highlighter.setLineMarkerRenderer(new ScoreRenderer(Math.min(score, CythonInteractionCost.MAX_SCORE)));
+            highlighter.setErrorStripeTooltip("Python interaction score " + score);
+            highlighters.add(highlighter);
+        });
+        editor.putUserData(HIGHLIGHTERS, highlighters);
+    }
+
+    public static void clear(@NotNull Editor editor) {
+        List<RangeHighlighter> highlighters = editor.getUserData(HIGHLIGHTERS);
+        if (highlighters == null) return;
+        MarkupModel markupModel = editor.getMarkupModel();
+        for (RangeHighlighter highlighter : highlighters) {
+            markupModel.removeHighlighter(highlighter);
+        }
+        editor.putUserData(HIGHLIGHTERS, null);
+    }
+
+    private record ScoreRenderer(int score) implements LineMarkerRenderer {
+        @Override
+        public void paint(@NotNull Editor editor, @NotNull Graphics g, @NotNull Rectangle r) {
+            g.setColor(SHADES[score]);
+            g.fillRect(r.x, r.y, r.width, r.height);
+        }
+    }
+}
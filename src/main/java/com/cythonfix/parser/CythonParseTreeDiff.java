@@ -0,0 +1,176 @@
+package com.cythonfix.parser;
+
+import com.cythonfix.psi.FixedCythonElementTypes;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.ParserDefinition;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.lang.PsiParser;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.python.pro.cython.parser.CythonParser;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.PyElementTypes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses Cython text with both the fixed and the stock parser and diffs the resulting trees.
+ *
+ * Divergences inside the constructs the fixes deliberately change (unnamed parameters, sizeof
+ * arguments, and the memoryview subscription or template parameter list of a base type) are
+ * marked as known; anything else means an override changed the tree for input it was not meant
+ * to touch. Children are aligned by start offset, so a node present in only one tree is reported
+ * once instead of shifting every sibling after it.
+ */
+public final class CythonParseTreeDiff {
+
+    /** Element types whose subtrees the fixed parser is expected to build differently. */
+    private static final TokenSet KNOWN_FIX_CONTEXTS = TokenSet.create(
+            FixedCythonElementTypes.UNNAMED_PARAMETER,
+            CythonElementTypes.SIZEOF_EXPRESSION
+    );
+
+    /**
+     * Element types the fixed parser builds differently only as the brackets of a base type
+     * declaration: memoryview subscriptions ({@code double[:, ::1]}) and template or buffer
+     * parameter lists ({@code np.ndarray[np.float64_t, ndim=1]}).
+     */
+    private static final TokenSet KNOWN_BASE_TYPE_BRACKETS = TokenSet.create(
+            PyElementTypes.SUBSCRIPTION_EXPRESSION,
+            PyElementTypes.PARAMETER_LIST
+    );
+
+    private static final TokenSet IGNORED = TokenSet.create(TokenType.WHITE_SPACE);
+
+    /**
+     * A point where the two trees differ. Types are "-" where one tree has no node.
+     */
+    public record Divergence(int offset, @NotNull String fixedType, @NotNull String stockType, boolean known) {
+    }
+
+    public record Result(long fixedNanos, long stockNanos, @NotNull List<Divergence> divergences) {
+        public long unexpectedCount() {
+            return divergences.stream().filter(d -> !d.known()).count();
+        }
+    }
+
+    private CythonParseTreeDiff() {
+    }
+
+    @NotNull
+    public static Result compare(@NotNull Project project, @NotNull CharSequence text) {
+        ParserDefinition definition = new FixedCythonParserDefinition();
+
+        long start = System.nanoTime();
+        ASTNode fixed = parse(definition, new FixedCythonParser(), project, text);
+        long fixedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        ASTNode stock = parse(definition, new CythonParser(), project, text);
+        long stockNanos = System.nanoTime() - start;
+
+        List<Divergence> divergences = new ArrayList<>();
+        diff(fixed, stock, divergences);
+        return new Result(fixedNanos, stockNanos, divergences);
+    }
+
+    @NotNull
+    private static ASTNode parse(
+            @NotNull ParserDefinition definition, @NotNull PsiParser parser,
+            @NotNull Project project, @NotNull CharSequence text) {
+        PsiBuilder builder = PsiBuilderFactory.getInstance()
+                .createBuilder(definition, definition.createLexer(project), text);
+        return parser.parse(definition.getFileNodeType(), builder);
+    }
+
+    private static void diff(@NotNull ASTNode fixed, @NotNull ASTNode stock, @NotNull List<Divergence> out) {
+        if (fixed.getElementType() != stock.getElementType() || fixed.getStartOffset() != stock.getStartOffset()) {
+            out.add(divergence(fixed, stock, fixed.getStartOffset()));
+            return;
+        }
+
+        int reported = out.size();
+        diffChildren(children(fixed), children(stock), out);
+        // Report a node whose extent differs only if no divergence inside it explains why
+        if (out.size() == reported && !fixed.getTextRange().equals(stock.getTextRange())) {
+            out.add(divergence(fixed, stock, fixed.getStartOffset()));
+        }
+    }
+
+    /**
+     * Pairs children that start at the same offset. A child without a counterpart is reported
+     * unless it lies inside the last child consumed from the other tree, whose divergence
+     * already covers it.
+     */
+    private static void diffChildren(
+            @NotNull List<ASTNode> fixedChildren, @NotNull List<ASTNode> stockChildren, @NotNull List<Divergence> out) {
+        int i = 0;
+        int j = 0;
+        TextRange lastFixed = null;
+        TextRange lastStock = null;
+        while (i < fixedChildren.size() || j < stockChildren.size()) {
+            ASTNode fixed = i < fixedChildren.size() ? fixedChildren.get(i) : null;
+            ASTNode stock = j < stockChildren.size() ? stockChildren.get(j) : null;
+            if (fixed != null && stock != null && fixed.getStartOffset() == stock.getStartOffset()) {
+                diff(fixed, stock, out);
+                lastFixed = fixed.getTextRange();
+                lastStock = stock.getTextRange();
+                i++;
+                j++;
+            } else if (stock == null || fixed != null && fixed.getStartOffset() < stock.getStartOffset()) {
+                if (lastStock == null || !lastStock.contains(fixed.getTextRange())) {
+                    out.add(divergence(fixed, null, fixed.getStartOffset()));
+                }
+                lastFixed = fixed.getTextRange();
+                i++;
+            } else {
+                if (lastFixed == null || !lastFixed.contains(stock.getTextRange())) {
+                    out.add(divergence(null, stock, stock.getStartOffset()));
+                }
+                lastStock = stock.getTextRange();
+                j++;
+            }
+        }
+    }
+
+    @NotNull
+    private static Divergence divergence(@Nullable ASTNode fixed, @Nullable ASTNode stock, int offset) {
+        boolean known = isInKnownFixContext(fixed) || isInKnownFixContext(stock);
+        return new Divergence(offset, typeName(fixed), typeName(stock), known);
+    }
+
+    private static boolean isInKnownFixContext(@Nullable ASTNode node) {
+        for (ASTNode current = node; current != null; current = current.getTreeParent()) {
+            if (KNOWN_FIX_CONTEXTS.contains(current.getElementType())) return true;
+            ASTNode parent = current.getTreeParent();
+            if (KNOWN_BASE_TYPE_BRACKETS.contains(current.getElementType())
+                    && parent != null && parent.getElementType() == CythonElementTypes.SIMPLE_BASE_TYPE_DECL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private static String typeName(@Nullable ASTNode node) {
+        if (node == null) return "-";
+        IElementType type = node.getElementType();
+        return type.toString();
+    }
+
+    @NotNull
+    private static List<ASTNode> children(@NotNull ASTNode node) {
+        List<ASTNode> result = new ArrayList<>();
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (!IGNORED.contains(child.getElementType())) result.add(child);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.cythonfix.profile;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact per-line scores of one source file: sorted 0-based line numbers and a score of 1-4
+ * for each, with no entries for score 0.
+ */
+public final class CythonLineScores {
+
+    public static final CythonLineScores EMPTY = new CythonLineScores(new int[0], new byte[0]);
+
+    private final int[] myLines;
+    private final byte[] myScores;
+
+    private CythonLineScores(int @NotNull [] lines, byte @NotNull [] scores) {
+        myLines = lines;
+        myScores = scores;
+    }
+
+    public boolean isEmpty() {
+        return myLines.length == 0;
+    }
+
+    public int getScore(int line) {
+        int index = Arrays.binarySearch(myLines, line);
+        return index >= 0 ? myScores[index] : 0;
+    }
+
+    /**
+     * Adds these scores to the given ones by line, keeping the higher score where both have one.
+     */
+    public void mergeInto(@NotNull Map<Integer, Integer> scores) {
+        for (int i = 0; i < myLines.length; i++) {
+            scores.merge(myLines[i], (int) myScores[i], Math::max);
+        }
+    }
+
+    /** Collects scores in any line order; the higher score wins for repeated lines. */
+    public static final class Builder {
+        private final Map<Integer, Integer> myScores = new HashMap<>();
+
+        public void add(int line, int score) {
+            if (line < 0 || score <= 0) return;
+            myScores.merge(line, score, Math::max);
+        }
+
+        @NotNull
+        public CythonLineScores build() {
+            if (myScores.isEmpty()) return EMPTY;
+            int[] lines = myScores.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            byte[] scores = new byte[lines.length];
+            for (int i = 0; i < lines.length; i++) {
+                scores[i] = (byte) (int) myScores.get(lines[i]);
+            }
+            return new CythonLineScores(lines, scores);
+        }
+    }
+}
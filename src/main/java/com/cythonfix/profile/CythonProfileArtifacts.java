@@ -0,0 +1,322 @@
+package com.cythonfix.profile;
+
+import com.cythonfix.index.CythonFileSummaryIndex;
+import com.cythonfix.overlay.CythonInteractionOverlay;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.PathUtil;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds and caches the {@code cython -a} reports and {@code line_profiler} outputs the build
+ * writes for Cython modules, for the interaction overlay.
+ *
+ * For {@code pkg/mod.pyx}, the annotation report is {@code pkg/mod.html} next to the source or
+ * under one of the {@code cython.fix.profile.directories} of a content root, either at the same
+ * relative path or directly inside it. Line profiles are the {@code *.lprof.txt} files directly
+ * inside those directories, matched to sources by their {@code File:} headers.
+ *
+ * Each artifact is parsed once per modification into {@link CythonLineScores}, and the
+ * artifact directories are listed once. VFS changes to an artifact under those directories, or
+ * to a report next to its source, drop its entry and, while the overlay is on, re-highlight
+ * the open sources it can apply to.
+ */
+@Service(Service.Level.PROJECT)
+public final class CythonProfileArtifacts implements Disposable {
+
+    private static final Logger LOG = Logger.getInstance(CythonProfileArtifacts.class);
+
+    private static final String DIRECTORIES_KEY = "cython.fix.profile.directories";
+    private static final String ANNOTATION_EXTENSION = ".html";
+    private static final String LINE_PROFILE_SUFFIX = ".lprof.txt";
+    private static final String PYX_EXTENSION = "pyx";
+
+    private record Parsed<T>(long stamp, @NotNull T value) {
+    }
+
+    /**
+     * The artifact directories of each content root, the paths they are expected at whether or
+     * not they exist, and the line profiles inside them.
+     */
+    private record Listing(
+            @NotNull String setting,
+            @NotNull Map<VirtualFile, List<VirtualFile>> directories,
+            @NotNull List<String> paths,
+            @NotNull Set<VirtualFile> lineProfiles) {
+    }
+
+    private final Project myProject;
+    private final Map<VirtualFile, Parsed<CythonLineScores>> myAnnotations = new ConcurrentHashMap<>();
+    private final Map<VirtualFile, Parsed<Map<String, CythonLineScores>>> myLineProfiles = new ConcurrentHashMap<>();
+    private volatile @Nullable Listing myListing;
+
+    public CythonProfileArtifacts(@NotNull Project project) {
+        myProject = project;
+        MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                artifactsChanged(events);
+            }
+        });
+        connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                myListing = null;
+            }
+        });
+    }
+
+    @NotNull
+    public static CythonProfileArtifacts getInstance(@NotNull Project project) {
+        return project.getService(CythonProfileArtifacts.class);
+    }
+
+    /**
+     * Returns the imported scores of a source file by 0-based line, or an empty map if the build
+     * left no report or profile for it.
+     */
+    @NotNull
+    public Map<Integer, Integer> getScores(@NotNull VirtualFile source) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        if (PYX_EXTENSION.equals(source.getExtension())) {
+            for (VirtualFile report : findAnnotationReports(source)) {
+                getAnnotationScores(report).mergeInto(scores);
+            }
+        }
+        for (VirtualFile profile : getListing().lineProfiles()) {
+            CythonLineScores profiled = findProfiledFile(getLineProfile(profile), source);
+            if (profiled != null) profiled.mergeInto(scores);
+        }
+        return scores;
+    }
+
+    @NotNull
+    private Set<VirtualFile> findAnnotationReports(@NotNull VirtualFile source) {
+        Set<VirtualFile> reports = new LinkedHashSet<>();
+        String reportName = source.getNameWithoutExtension() + ANNOTATION_EXTENSION;
+        VirtualFile directory = source.getParent();
+        if (directory == null) return reports;
+
+        addIfFile(reports, directory.findChild(reportName));
+        getListing().directories().forEach((root, artifactDirectories) -> {
+            String relativePath = VfsUtilCore.getRelativePath(directory, root);
+            for (VirtualFile artifactDirectory : artifactDirectories) {
+                if (relativePath != null) {
+                    addIfFile(reports, artifactDirectory.findFileByRelativePath(
+                            relativePath.isEmpty() ? reportName : relativePath + "/" + reportName));
+                }
+                addIfFile(reports, artifactDirectory.findChild(reportName));
+            }
+        });
+        return reports;
+    }
+
+    /**
+     * Returns the artifact directories and the line profiles inside them, listed once and kept
+     * until a file or directory under an artifact path is created, deleted, moved or renamed,
+     * the project roots change or the directory setting is edited.
+     */
+    @NotNull
+    private Listing getListing() {
+        String setting = Registry.stringValue(DIRECTORIES_KEY);
+        Listing listing = myListing;
+        if (listing == null || !listing.setting().equals(setting)) {
+            listing = computeListing(setting);
+            myListing = listing;
+        }
+        return listing;
+    }
+
+    @NotNull
+    private Listing computeListing(@NotNull String setting) {
+        Map<VirtualFile, List<VirtualFile>> directories = new LinkedHashMap<>();
+        List<String> paths = new ArrayList<>();
+        Set<VirtualFile> profiles = new LinkedHashSet<>();
+        for (VirtualFile root : ProjectRootManager.getInstance(myProject).getContentRoots()) {
+            List<VirtualFile> artifactDirectories = new ArrayList<>();
+            for (String name : StringUtil.split(setting, ",")) {
+                paths.add(FileUtil.toCanonicalPath(root.getPath() + "/" + name.trim()));
+                VirtualFile directory = root.findFileByRelativePath(name.trim());
+                if (directory == null || !directory.isDirectory()) continue;
+                artifactDirectories.add(directory);
+                for (VirtualFile child : directory.getChildren()) {
+                    if (!child.isDirectory() && child.getName().endsWith(LINE_PROFILE_SUFFIX)) profiles.add(child);
+                }
+            }
+            directories.put(root, List.copyOf(artifactDirectories));
+        }
+        return new Listing(setting, directories, List.copyOf(paths), profiles);
+    }
+
+    private void artifactsChanged(@NotNull List<? extends VFileEvent> events) {
+        Listing listing = myListing;
+        // Nothing was looked up yet, so nothing is cached or shown
+        if (listing == null) return;
+
+        // Reports under an artifact directory by source name, reports next to a source by path
+        Set<String> artifactReports = new HashSet<>();
+        Set<String> siblingReports = new HashSet<>();
+        boolean profilesChanged = false;
+        for (VFileEvent event : events) {
+            for (String path : getPaths(event)) {
+                boolean inArtifactDirectory = isUnder(path, listing.paths());
+                if (!(event instanceof VFileContentChangeEvent) && (inArtifactDirectory || containsAny(path, listing.paths()))) {
+                    myListing = null;
+                }
+                if (path.endsWith(LINE_PROFILE_SUFFIX)) {
+                    if (!inArtifactDirectory) continue;
+                    profilesChanged = true;
+                } else if (path.endsWith(ANNOTATION_EXTENSION)) {
+                    String withoutExtension = path.substring(0, path.length() - ANNOTATION_EXTENSION.length());
+                    if (inArtifactDirectory) {
+                        artifactReports.add(PathUtil.getFileName(withoutExtension));
+                    } else {
+                        siblingReports.add(withoutExtension);
+                    }
+                } else {
+                    continue;
+                }
+                VirtualFile file = event.getFile();
+                if (file != null) {
+                    myAnnotations.remove(file);
+                    myLineProfiles.remove(file);
+                }
+            }
+        }
+        if (artifactReports.isEmpty() && siblingReports.isEmpty() && !profilesChanged) return;
+        if (myProject.isDisposed() || !CythonInteractionOverlay.isEnabled()) return;
+
+        // Only open sources whose shading can come from the changed artifacts are re-highlighted
+        PsiManager psiManager = PsiManager.getInstance(myProject);
+        DaemonCodeAnalyzer daemon = DaemonCodeAnalyzer.getInstance(myProject);
+        for (VirtualFile source : FileEditorManager.getInstance(myProject).getOpenFiles()) {
+            if (!CythonFileSummaryIndex.CYTHON_EXTENSIONS.contains(source.getExtension())) continue;
+            boolean affected = profilesChanged || PYX_EXTENSION.equals(source.getExtension())
+                    && (artifactReports.contains(source.getNameWithoutExtension())
+                    || siblingReports.contains(PathUtil.getParentPath(source.getPath()) + "/" + source.getNameWithoutExtension()));
+            if (!affected) continue;
+            PsiFile psiFile = psiManager.findFile(source);
+            if (psiFile != null) daemon.restart(psiFile);
+        }
+    }
+
+    @NotNull
+    private static List<String> getPaths(@NotNull VFileEvent event) {
+        if (event instanceof VFileMoveEvent move) return List.of(move.getOldPath(), move.getPath());
+        if (event instanceof VFilePropertyChangeEvent property && property.isRename()) {
+            return List.of(property.getOldPath(), property.getPath());
+        }
+        return List.of(event.getPath());
+    }
+
+    /** Returns true if the path is one of the directories or inside one of them. */
+    private static boolean isUnder(@NotNull String path, @NotNull List<String> directories) {
+        for (String directory : directories) {
+            if (FileUtil.isAncestor(directory, path, false)) return true;
+        }
+        return false;
+    }
+
+    /** Returns true if the path is a strict ancestor of one of the directories. */
+    private static boolean containsAny(@NotNull String path, @NotNull List<String> directories) {
+        for (String directory : directories) {
+            if (FileUtil.isAncestor(path, directory, true)) return true;
+        }
+        return false;
+    }
+
+    private static void addIfFile(@NotNull Set<VirtualFile> files, @Nullable VirtualFile file) {
+        if (file != null && !file.isDirectory()) files.add(file);
+    }
+
+    @Nullable
+    private static CythonLineScores findProfiledFile(@NotNull Map<String, CythonLineScores> profile, @NotNull VirtualFile source) {
+        CythonLineScores exact = profile.get(source.getPath());
+        if (exact != null) return exact;
+        // Profiles recorded on another machine or in a build tree: match by trailing path
+        for (Map.Entry<String, CythonLineScores> entry : profile.entrySet()) {
+            String path = entry.getKey().replace('\\', '/');
+            if (path.endsWith("/" + source.getParent().getName() + "/" + source.getName())) return entry.getValue();
+        }
+        return null;
+    }
+
+    @NotNull
+    private CythonLineScores getAnnotationScores(@NotNull VirtualFile report) {
+        Parsed<CythonLineScores> parsed = myAnnotations.get(report);
+        if (parsed == null || parsed.stamp() != report.getModificationStamp()) {
+            long stamp = report.getModificationStamp();
+            CythonLineScores scores = CythonLineScores.EMPTY;
+            try (BufferedReader reader = openReader(report)) {
+                scores = CythonReportParsers.parseAnnotationReport(reader);
+            } catch (IOException e) {
+                LOG.debug("Cannot read Cython annotation report " + report.getPath(), e);
+            }
+            parsed = new Parsed<>(stamp, scores);
+            myAnnotations.put(report, parsed);
+        }
+        return parsed.value();
+    }
+
+    @NotNull
+    private Map<String, CythonLineScores> getLineProfile(@NotNull VirtualFile profile) {
+        Parsed<Map<String, CythonLineScores>> parsed = myLineProfiles.get(profile);
+        if (parsed == null || parsed.stamp() != profile.getModificationStamp()) {
+            long stamp = profile.getModificationStamp();
+            Map<String, CythonLineScores> scores = Map.of();
+            try (BufferedReader reader = openReader(profile)) {
+                scores = Map.copyOf(CythonReportParsers.parseLineProfile(reader));
+            } catch (IOException e) {
+                LOG.debug("Cannot read line profile " + profile.getPath(), e);
+            }
+            parsed = new Parsed<>(stamp, scores);
+            myLineProfiles.put(profile, parsed);
+        }
+        return parsed.value();
+    }
+
+    @NotNull
+    private static BufferedReader openReader(@NotNull VirtualFile file) throws IOException {
+        return new BufferedReader(new InputStreamReader(file.getInputStream(), file.getCharset()));
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
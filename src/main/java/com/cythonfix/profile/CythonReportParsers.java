@@ -0,0 +1,95 @@
+package com.cythonfix.profile;
+
+import com.cythonfix.analysis.CythonInteractionCost;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Line-by-line parsers for {@code cython -a} HTML reports and {@code line_profiler} text
+ * output. Neither keeps more than the current line in memory, so reports of tens of MB are
+ * read in one pass.
+ */
+public final class CythonReportParsers {
+
+    /** {@code <pre class="cython line score-12" ...>+<span class="">0042</span>: ...} */
+    private static final Pattern ANNOTATED_LINE = Pattern.compile(
+            "<pre class=\"cython line score-(\\d+)\"[^>]*>.*?<span class=\"\">(\\d+)</span>");
+
+    /** {@code File: /path/to/module.pyx} */
+    private static final Pattern PROFILED_FILE = Pattern.compile("^File:\\s+(.+?)\\s*$");
+
+    /** {@code   42     10000     123456.0     12.3     45.6      x += y} */
+    private static final Pattern PROFILED_LINE = Pattern.compile(
+            "^\\s*(\\d+)\\s+\\d+\\s+[\\d.e+-]+\\s+[\\d.e+-]+\\s+([\\d.]+)\\s");
+
+    private CythonReportParsers() {
+    }
+
+    /**
+     * Reads a {@code cython -a} report. Cython's raw scores, which count Python C-API calls on
+     * the line, are bucketed onto the overlay's 1-4 scale.
+     */
+    @NotNull
+    public static CythonLineScores parseAnnotationReport(@NotNull BufferedReader reader) throws IOException {
+        CythonLineScores.Builder builder = new CythonLineScores.Builder();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (!line.contains("cython line score-")) continue;
+            Matcher matcher = ANNOTATED_LINE.matcher(line);
+            if (matcher.find()) {
+                int rawScore = Integer.parseInt(matcher.group(1));
+                builder.add(Integer.parseInt(matcher.group(2)) - 1, bucketAnnotationScore(rawScore));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads {@code line_profiler} text output, which may cover several files, and returns the
+     * scores by the profiled file path. The share of total time of a line is bucketed onto the
+     * overlay's 1-4 scale.
+     */
+    @NotNull
+    public static Map<String, CythonLineScores> parseLineProfile(@NotNull BufferedReader reader) throws IOException {
+        Map<String, CythonLineScores.Builder> builders = new HashMap<>();
+        CythonLineScores.Builder current = null;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            Matcher file = PROFILED_FILE.matcher(line);
+            if (file.matches()) {
+                current = builders.computeIfAbsent(file.group(1), k -> new CythonLineScores.Builder());
+                continue;
+            }
+            if (current == null) continue;
+            Matcher profiled = PROFILED_LINE.matcher(line);
+            if (profiled.find()) {
+                double percent = Double.parseDouble(profiled.group(2));
+                current.add(Integer.parseInt(profiled.group(1)) - 1, bucketTimeShare(percent));
+            }
+        }
+
+        Map<String, CythonLineScores> result = new HashMap<>();
+        builders.forEach((path, builder) -> result.put(path, builder.build()));
+        return result;
+    }
+
+    private static int bucketAnnotationScore(int rawScore) {
+        if (rawScore <= 0) return 0;
+        if (rawScore < 5) return 1;
+        if (rawScore < 15) return 2;
+        if (rawScore < 40) return 3;
+        return CythonInteractionCost.MAX_SCORE;
+    }
+
+    private static int bucketTimeShare(double percent) {
+        if (percent <= 0) return 0;
+        if (percent < 1) return 1;
+        if (percent < 5) return 2;
+        if (percent < 20) return 3;
+        return CythonInteractionCost.MAX_SCORE;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cythonfix.psi;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The top-level {@code cimport} statements of a file, read from statement text.
+ *
+ * {@code from libc.math cimport sqrt as csqrt} binds {@code csqrt} to {@code sqrt} of
+ * {@code libc.math}; {@code cimport numpy as cnp} binds {@code cnp} to the module
+ * {@code numpy}, and a plain {@code cimport libc.math} binds the dotted name itself.
+ */
+public record CythonCimports(@NotNull Map<String, ImportedName> names, @NotNull Map<String, String> modules) {
+
+    public record ImportedName(@NotNull String module, @NotNull String name) {
+    }
+
+    private static final Pattern FROM_CIMPORT = Pattern.compile(
+            "from\\s+([\\w.]+)\\s+cimport\\s+\\(?([^)]*)\\)?\\s*", Pattern.DOTALL);
+
+    private static final Pattern CIMPORT = Pattern.compile("cimport\\s+(.+)", Pattern.DOTALL);
+
+    private static final Pattern ALIASED_NAME = Pattern.compile("([\\w.]+)(?:\\s+as\\s+(\\w+))?");
+
+    /** Returns the module a local name refers to through {@code cimport}, or null. */
+    @Nullable
+    public String getModule(@NotNull String localName) {
+        return modules.get(localName);
+    }
+
+    /** Returns the module member a local name was cimported as, or null. */
+    @Nullable
+    public ImportedName getName(@NotNull String localName) {
+        return names.get(localName);
+    }
+
+    @NotNull
+    public static CythonCimports of(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                compute(file), file));
+    }
+
+    @NotNull
+    private static CythonCimports compute(@NotNull PsiFile file) {
+        Map<String, ImportedName> names = new HashMap<>();
+        Map<String, String> modules = new HashMap<>();
+        for (PsiElement child : file.getChildren()) {
+            if (!CythonPsiUtil.startsWithWords(child, "from") && !CythonPsiUtil.startsWithWords(child, "cimport")) {
+                continue;
+            }
+            String text = stripComments(child.getText());
+            Matcher from = FROM_CIMPORT.matcher(text);
+            if (from.matches()) {
+                String module = from.group(1);
+                for (String item : from.group(2).split(",")) {
+                    Matcher name = ALIASED_NAME.matcher(item.trim());
+                    if (!name.matches() || name.group(1).contains(".")) continue;
+                    String localName = name.group(2) != null ? name.group(2) : name.group(1);
+                    names.put(localName, new ImportedName(module, name.group(1)));
+                }
+                continue;
+            }
+            Matcher cimport = CIMPORT.matcher(text);
+            if (cimport.matches()) {
+                for (String item : cimport.group(1).split(",")) {
+                    Matcher module = ALIASED_NAME.matcher(item.trim());
+                    if (!module.matches()) continue;
+                    modules.put(module.group(2) != null ? module.group(2) : module.group(1), module.group(1));
+                }
+            }
+        }
+        return new CythonCimports(Map.copyOf(names), Map.copyOf(modules));
+    }
+
+    @NotNull
+    private static String stripComments(@NotNull String text) {
+        text = text.replace("\\\n", " ");
+        if (text.indexOf('#') < 0) return text.trim();
+        StringBuilder builder = new StringBuilder();
+        for (String line : List.of(text.split("\n"))) {
+            int comment = line.indexOf('#');
+            builder.append(comment < 0 ? line : line.substring(0, comment)).append('\n');
+        }
+        return builder.toString().trim();
+    }
+}
@@ -0,0 +1,109 @@
+package com.cythonfix.psi;
+
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.SyntaxTraverser;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.python.pro.cython.psi.CythonIncludeStatement;
+import com.intellij.python.pro.cython.psi.CythonNamedElement;
+import com.jetbrains.python.PyTokenTypes;
+import com.jetbrains.python.psi.PyAssignmentStatement;
+import com.jetbrains.python.psi.PyClass;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyExpressionStatement;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyImportElement;
+import com.jetbrains.python.psi.PyImportStatementBase;
+import com.jetbrains.python.psi.PyPassStatement;
+import com.jetbrains.python.psi.PyStringLiteralExpression;
+import com.jetbrains.python.psi.PyTargetExpression;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The names a Cython file uses and the names it makes available to files that include it,
+ * computed in one pass and cached on the file until it changes.
+ *
+ * Used names are all identifiers outside its include and cimport statements, a superset of
+ * the names it actually references. Exported names are its top-level declarations: Cython
+ * declarations (including those in {@code cdef extern} blocks), functions, classes, cdef
+ * variables, assignments, {@code DEF} constants and imports. A file with top-level code that
+ * runs for its side effects, or with a star import, is opaque: what it contributes can't be
+ * told from its names.
+ */
+public record CythonFileNames(@NotNull Set<String> used, @NotNull Set<String> exported, boolean opaque) {
+
+    private static final String DEF = "DEF";
+
+    @NotNull
+    public static CythonFileNames of(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                compute(file), file));
+    }
+
+    @NotNull
+    private static CythonFileNames compute(@NotNull PsiFile file) {
+        Set<String> used = new HashSet<>();
+        Set<String> exported = new HashSet<>();
+        boolean opaque = false;
+
+        for (PsiElement child : file.getChildren()) {
+            if (child instanceof CythonIncludeStatement || CythonPsiUtil.isCimportStatement(child)) continue;
+            collectIdentifiers(child, used);
+
+            if (child instanceof PsiWhiteSpace || child instanceof PsiComment || child instanceof PyPassStatement) continue;
+            if (child instanceof CythonNamedElement named) {
+                if (named.getName() != null) exported.add(named.getName());
+            } else if ((child instanceof PyFunction || child instanceof PyClass) && child instanceof PsiNamedElement named) {
+                if (named.getName() != null) exported.add(named.getName());
+            } else if (child instanceof PyAssignmentStatement assignment) {
+                for (PyExpression target : assignment.getTargets()) {
+                    if (target instanceof PyTargetExpression named && named.getName() != null) exported.add(named.getName());
+                }
+            } else if (child instanceof PyImportStatementBase imports) {
+                PyImportElement[] elements = imports.getImportElements();
+                if (elements.length == 0) opaque = true;
+                for (PyImportElement element : elements) {
+                    if (element.getVisibleName() != null) exported.add(element.getVisibleName());
+                }
+            } else if (child instanceof PyExpressionStatement expression) {
+                // Docstrings are harmless; any other expression runs on import
+                opaque |= !(expression.getExpression() instanceof PyStringLiteralExpression);
+            } else if (CythonPsiUtil.startsWithWords(child, DEF)) {
+                PsiElement name = PsiTreeUtil.nextVisibleLeaf(PsiTreeUtil.getDeepestFirst(child));
+                if (name != null) exported.add(name.getText());
+            } else if (CythonPsiUtil.startsWithWords(child, "cdef") || CythonPsiUtil.startsWithWords(child, "cpdef")
+                    || CythonPsiUtil.startsWithWords(child, "ctypedef")) {
+                // extern blocks and struct bodies: every Cython declaration and function inside
+                for (CythonNamedElement named : PsiTreeUtil.findChildrenOfType(child, CythonNamedElement.class)) {
+                    if (named.getName() != null) exported.add(named.getName());
+                }
+                for (PyFunction function : PsiTreeUtil.findChildrenOfType(child, PyFunction.class)) {
+                    if (function.getName() != null) exported.add(function.getName());
+                }
+            } else {
+                opaque = true;
+            }
+        }
+        if (file instanceof PyFile pyFile) {
+            exported.addAll(CythonDeclaredTypes.getScopeTable(pyFile).keySet());
+        }
+        return new CythonFileNames(Set.copyOf(used), Set.copyOf(exported), opaque);
+    }
+
+    private static void collectIdentifiers(@NotNull PsiElement element, @NotNull Set<String> names) {
+        for (PsiElement leaf : SyntaxTraverser.psiTraverser(element).filter(leaf ->
+                leaf.getNode() != null && leaf.getNode().getElementType() == PyTokenTypes.IDENTIFIER)) {
+            names.add(leaf.getText());
+        }
+    }
+}
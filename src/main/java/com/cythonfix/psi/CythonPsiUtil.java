@@ -0,0 +1,116 @@
+package com.cythonfix.psi;
+
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.python.pro.cython.CythonLanguageDialect;
+import com.jetbrains.python.psi.PyDecoratorList;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyStatementList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small PSI helpers shared by the Cython-Fix extensions.
+ *
+ * Cython keywords like `cdef`, `ctypedef` and `fused` are plain identifiers to the lexer, so
+ * the kind of a declaration is best recognized from its leading words rather than its
+ * element type.
+ */
+public final class CythonPsiUtil {
+
+    private CythonPsiUtil() {
+    }
+
+    /**
+     * Gate for extensions that the platform calls for every Python file: a plain language check
+     * of the containing file, which rejects pure-Python files before any other work.
+     */
+    public static boolean isInCythonFile(@NotNull PsiElement element) {
+        PsiFile file = element.getContainingFile();
+        return file != null && CythonLanguageDialect.isInsideCythonFile(file);
+    }
+
+    /**
+     * Returns true if the first non-whitespace, non-comment leaves of the element have exactly
+     * the given texts, e.g. {@code startsWithWords(statement, "ctypedef", "fused")}.
+     */
+    public static boolean startsWithWords(@NotNull PsiElement element, @NotNull String... words) {
+        int end = element.getTextRange().getEndOffset();
+        PsiElement leaf = PsiTreeUtil.firstChild(element);
+        int index = 0;
+        while (leaf != null && index < words.length && leaf.getTextRange().getStartOffset() < end) {
+            if (!(leaf instanceof PsiWhiteSpace) && !(leaf instanceof PsiComment)) {
+                if (!words[index].equals(leaf.getText())) return false;
+                index++;
+            }
+            leaf = PsiTreeUtil.nextLeaf(leaf);
+        }
+        return index == words.length;
+    }
+
+    /**
+     * Returns true for {@code cdef} and {@code cpdef} functions, looking past decorators such
+     * as {@code @cython.boundscheck(False)}.
+     */
+    public static boolean isCFunction(@NotNull PyFunction function) {
+        PyDecoratorList decorators = function.getDecoratorList();
+        PsiElement first = decorators != null
+                ? PsiTreeUtil.skipWhitespacesAndCommentsForward(decorators)
+                : function.getFirstChild();
+        PsiElement keyword = first != null ? PsiTreeUtil.getDeepestFirst(first) : null;
+        if (keyword instanceof PsiWhiteSpace || keyword instanceof PsiComment) {
+            keyword = PsiTreeUtil.skipWhitespacesAndCommentsForward(keyword);
+        }
+        if (keyword == null) return false;
+        String text = keyword.getText();
+        return "cdef".equals(text) || "cpdef".equals(text);
+    }
+
+    /**
+     * Returns true for top-level {@code cimport x} and {@code from x cimport y} statements.
+     */
+    public static boolean isCimportStatement(@NotNull PsiElement element) {
+        if (startsWithWords(element, "cimport")) return true;
+        if (!startsWithWords(element, "from")) return false;
+        for (PsiElement leaf = PsiTreeUtil.firstChild(element); leaf != null && PsiTreeUtil.isAncestor(element, leaf, false);
+             leaf = PsiTreeUtil.nextLeaf(leaf)) {
+            if ("cimport".equals(leaf.getText())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the words between a function's parameter list and its body, e.g. {@code nogil},
+     * {@code except -1} or {@code with gil}.
+     */
+    @NotNull
+    public static List<String> getHeaderWords(@NotNull PyFunction function) {
+        PyStatementList body = function.getStatementList();
+        int end = body.getTextLength() > 0 ? body.getTextRange().getStartOffset() : function.getTextRange().getEndOffset();
+        List<String> words = new ArrayList<>();
+        for (PsiElement leaf = PsiTreeUtil.nextLeaf(function.getParameterList());
+             leaf != null && leaf.getTextRange().getStartOffset() < end;
+             leaf = PsiTreeUtil.nextLeaf(leaf)) {
+            if (!(leaf instanceof PsiWhiteSpace) && !(leaf instanceof PsiComment)) words.add(leaf.getText());
+        }
+        return words;
+    }
+
+    /**
+     * Returns the enclosing {@code cdef extern from "header.h":} block, or null.
+     */
+    @Nullable
+    public static PsiElement findExternBlock(@NotNull PsiElement element) {
+        for (PsiElement parent = element.getParent(); parent != null && !(parent instanceof PsiFile);
+             parent = parent.getParent()) {
+            if (startsWithWords(parent, "cdef", "extern")) return parent;
+        }
+        return null;
+    }
+}
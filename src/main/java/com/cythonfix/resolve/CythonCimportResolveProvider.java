@@ -0,0 +1,93 @@
+package com.cythonfix.resolve;
+
+import com.cythonfix.psi.CythonCimports;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.type.CythonDeclaredTypes;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.QualifiedName;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyQualifiedExpression;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.resolve.PyReferenceResolveProvider;
+import com.jetbrains.python.psi.resolve.RatedResolveResult;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resolves cimported Cython declarations ({@code from libc.stdio cimport FILE},
+ * {@code cnp.ndarray} after {@code cimport numpy as cnp}) through the .pxd declaration tables.
+ *
+ * The .pxd file of a module comes from {@link CythonCimportResolver}, which caches module
+ * lookups per project, and its names from {@link CythonIncludeResolveProvider#getDeclarations}
+ * plus the files it includes. Like the include provider this is non-overriding: references
+ * normal resolution already handles keep resolving to their import elements.
+ */
+public class CythonCimportResolveProvider implements PyReferenceResolveProvider {
+
+    @Override
+    @NotNull
+    public List<RatedResolveResult> resolveName(
+            @NotNull PyQualifiedExpression element,
+            @NotNull TypeEvalContext context) {
+
+        if (!CythonPsiUtil.isInCythonFile(element)) return Collections.emptyList();
+        String name = element.getReferencedName();
+        if (name == null) return Collections.emptyList();
+        if (!(element.getContainingFile() instanceof PyFile pyFile)) return Collections.emptyList();
+
+        CythonCimports cimports = CythonCimports.of(pyFile);
+        String module;
+        String declaredName;
+        PyExpression qualifier = element.getQualifier();
+        if (qualifier == null) {
+            CythonCimports.ImportedName imported = cimports.getName(name);
+            if (imported == null || CythonDeclaredTypes.isBoundInLocalScopes(element, name)) {
+                return Collections.emptyList();
+            }
+            module = imported.module();
+            declaredName = imported.name();
+        } else {
+            if (!(qualifier instanceof PyReferenceExpression qualifierReference)) return Collections.emptyList();
+            QualifiedName qualifiedName = qualifierReference.asQualifiedName();
+            module = qualifiedName != null ? cimports.getModule(qualifiedName.toString()) : null;
+            declaredName = name;
+        }
+
+        PyFile pxd = module != null ? findModuleFile(module, pyFile) : null;
+        if (pxd == null) return Collections.emptyList();
+
+        List<RatedResolveResult> results = new ArrayList<>();
+        addDeclarations(pxd, declaredName, results);
+        for (PyFile includedFile : CythonIncludeResolveProvider.getIncludeClosure(pxd)) {
+            addDeclarations(includedFile, declaredName, results);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the .pxd file of a cimported module as PSI, or null if it can't be found.
+     */
+    @Nullable
+    public static PyFile findModuleFile(@NotNull String module, @NotNull PsiFile importingFile) {
+        VirtualFile importingVirtualFile = importingFile.getOriginalFile().getVirtualFile();
+        VirtualFile file = CythonCimportResolver.getInstance(importingFile.getProject())
+                .findModule(module, importingVirtualFile);
+        if (file == null) return null;
+        return PsiManager.getInstance(importingFile.getProject()).findFile(file) instanceof PyFile pyFile ? pyFile : null;
+    }
+
+    private static void addDeclarations(@NotNull PyFile file, @NotNull String name, @NotNull List<RatedResolveResult> results) {
+        for (PsiElement declaration : CythonIncludeResolveProvider.getDeclarations(file).getOrDefault(name, List.of())) {
+            results.add(new RatedResolveResult(RatedResolveResult.RATE_NORMAL, declaration));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.cythonfix.resolve;
+
+import com.cythonfix.cache.BoundedCache;
+import com.cythonfix.cache.CythonFixCaches;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.roots.OrderEnumerator;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves cimported module names such as {@code libc.stdlib} or {@code numpy} to their .pxd
+ * files, once per project rather than once per importing file.
+ *
+ * Modules are looked up under the project's source and content roots, then under the SDK and
+ * library class roots, including Cython's own {@code Cython/Includes} directory. Results are
+ * kept until a .pxd file or a directory under the search roots is created, deleted, moved or
+ * renamed, or the project roots change; edits to file contents and changes to other files don't
+ * change where a module lives and keep the cache.
+ */
+@Service(Service.Level.PROJECT)
+public final class CythonCimportResolver implements Disposable {
+
+    private static final String PXD_EXTENSION = ".pxd";
+    private static final String PACKAGE_PXD = "__init__.pxd";
+    private static final String CYTHON_INCLUDES = "Cython/Includes";
+
+    /** A cached lookup; the file is null if the module was not found. */
+    private record Resolution(@Nullable VirtualFile file) {
+    }
+
+    private final Project myProject;
+    private final BoundedCache<String, Resolution> myResolutions;
+    private volatile @Nullable List<VirtualFile> mySearchRoots;
+
+    public CythonCimportResolver(@NotNull Project project) {
+        myProject = project;
+        myResolutions = CythonFixCaches.getInstance().newCache(
+                "cimport modules (" + project.getName() + ")", 2048, this);
+
+        MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                List<VirtualFile> roots = mySearchRoots;
+                // Nothing was searched yet, so nothing is cached
+                if (roots == null) return;
+                for (VFileEvent event : events) {
+                    if (affectsModules(event, roots)) {
+                        invalidate();
+                        return;
+                    }
+                }
+            }
+        });
+        connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                invalidate();
+            }
+        });
+    }
+
+    @NotNull
+    public static CythonCimportResolver getInstance(@NotNull Project project) {
+        return project.getService(CythonCimportResolver.class);
+    }
+
+    /**
+     * Returns the .pxd file declaring a cimported module, or null if there is none. Modules next
+     * to the importing file take precedence over the project-wide lookup, as in Cython.
+     */
+    @Nullable
+    public VirtualFile findModule(@NotNull String module, @Nullable VirtualFile importingFile) {
+        if (module.isEmpty() || module.startsWith(".")) return null;
+
+        VirtualFile directory = importingFile != null ? importingFile.getParent() : null;
+        if (directory != null) {
+            VirtualFile sibling = findUnder(directory, module);
+            if (sibling != null) return sibling;
+        }
+
+        Resolution resolution = myResolutions.computeIfAbsent(module, key -> new Resolution(search(key)));
+        VirtualFile file = resolution.file();
+        if (file != null && !file.isValid()) {
+            myResolutions.remove(module);
+            return null;
+        }
+        return file;
+    }
+
+    public void invalidate() {
+        mySearchRoots = null;
+        myResolutions.clear();
+    }
+
+    /**
+     * Returns true for events that can change which .pxd a module name finds: creating,
+     * deleting, moving or renaming a .pxd file or a directory under one of the search roots.
+     */
+    private static boolean affectsModules(@NotNull VFileEvent event, @NotNull List<VirtualFile> roots) {
+        if (event instanceof VFileContentChangeEvent) return false;
+        if (event instanceof VFilePropertyChangeEvent property && !property.isRename()) return false;
+
+        VirtualFile file = event.getFile();
+        boolean directory = event instanceof VFileCreateEvent create ? create.isDirectory()
+                : file != null && file.isDirectory();
+        for (String path : getPaths(event)) {
+            if (!directory && !path.endsWith(PXD_EXTENSION)) continue;
+            for (VirtualFile root : roots) {
+                if (FileUtil.isAncestor(root.getPath(), path, false)) return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private static List<String> getPaths(@NotNull VFileEvent event) {
+        if (event instanceof VFileMoveEvent move) return List.of(move.getOldPath(), move.getPath());
+        if (event instanceof VFilePropertyChangeEvent rename) return List.of(rename.getOldPath(), rename.getPath());
+        return List.of(event.getPath());
+    }
+
+    @Nullable
+    private VirtualFile search(@NotNull String module) {
+        for (VirtualFile root : getSearchRoots()) {
+            VirtualFile file = findUnder(root, module);
+            if (file != null) return file;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static VirtualFile findUnder(@NotNull VirtualFile root, @NotNull String module) {
+        String path = module.replace('.', '/');
+        VirtualFile file = root.findFileByRelativePath(path + PXD_EXTENSION);
+        if (file != null && !file.isDirectory()) return file;
+        VirtualFile packageFile = root.findFileByRelativePath(path + "/" + PACKAGE_PXD);
+        return packageFile != null && !packageFile.isDirectory() ? packageFile : null;
+    }
+
+    @NotNull
+    private List<VirtualFile> getSearchRoots() {
+        List<VirtualFile> roots = mySearchRoots;
+        if (roots == null) {
+            Set<VirtualFile> collected = new LinkedHashSet<>();
+            ProjectRootManager rootManager = ProjectRootManager.getInstance(myProject);
+            Collections.addAll(collected, rootManager.getContentSourceRoots());
+            Collections.addAll(collected, rootManager.getContentRoots());
+            for (VirtualFile classRoot : OrderEnumerator.orderEntries(myProject).getAllLibrariesAndSdkClassesRoots()) {
+                collected.add(classRoot);
+                VirtualFile includes = classRoot.findFileByRelativePath(CYTHON_INCLUDES);
+                if (includes != null && includes.isDirectory()) collected.add(includes);
+            }
+            roots = List.copyOf(collected);
+            mySearchRoots = roots;
+        }
+        return roots;
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -1,7 +1,15 @@
 package com.cythonfix.resolve;
 
+import com.cythonfix.cache.CythonProjectCaches;
+import com.cythonfix.index.CythonFileSummaryIndex;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
-import com.intellij.python.pro.cython.CythonLanguageDialect;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.python.pro.cython.psi.CythonIncludeStatement;
 import com.intellij.python.pro.cython.psi.CythonNamedElement;
 import com.jetbrains.python.psi.PyFile;
@@ -10,11 +18,14 @@ import com.jetbrains.python.psi.resolve.PyReferenceResolveProvider;
 import com.jetbrains.python.psi.resolve.RatedResolveResult;
 import com.jetbrains.python.psi.types.TypeEvalContext;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -26,6 +37,14 @@ import java.util.Set;
  * since CythonTypedefStatement has no stub type, it's invisible. This provider fills the gap
  * by walking included files' AST children to find CythonNamedElement instances.
  *
+ * The transitive include closure of a file is kept in {@link CythonProjectCaches}, and the
+ * named declarations of each included file in a table cached on that file, so resolving a
+ * name is a lookup per included file.
+ *
+ * Outside of dumb mode, closures are walked and included files filtered through the persistent
+ * {@link CythonFileSummaryIndex}, so after a restart only the files that actually declare the
+ * name are parsed.
+ *
  * This is a non-overriding provider, so it only fires when normal resolution found nothing.
  */
 public class CythonIncludeResolveProvider implements PyReferenceResolveProvider {
@@ -36,8 +55,8 @@ public class CythonIncludeResolveProvider implements PyReferenceResolveProvider
             @NotNull PyQualifiedExpression element,
             @NotNull TypeEvalContext context) {
 
+        if (!CythonPsiUtil.isInCythonFile(element)) return Collections.emptyList();
         if (element.isQualified()) return Collections.emptyList();
-        if (!CythonLanguageDialect.isInsideCythonFile(element)) return Collections.emptyList();
 
         String name = element.getReferencedName();
         if (name == null) return Collections.emptyList();
@@ -45,32 +64,123 @@ public class CythonIncludeResolveProvider implements PyReferenceResolveProvider
         if (!(element.getContainingFile() instanceof PyFile pyFile)) return Collections.emptyList();
 
         List<RatedResolveResult> results = new ArrayList<>();
-        resolveInIncludes(pyFile, name, results, new HashSet<>());
+        for (PyFile includedFile : getIncludeClosure(pyFile)) {
+            if (!mayDeclare(includedFile, name)) continue;
+            for (PsiElement declaration : getDeclarations(includedFile).getOrDefault(name, List.of())) {
+                results.add(new RatedResolveResult(RatedResolveResult.RATE_NORMAL, declaration));
+            }
+        }
         return results;
     }
 
-    private static void resolveInIncludes(
-            PyFile file, String name, List<RatedResolveResult> results, Set<PyFile> visited) {
-        if (!visited.add(file)) return;
+    /**
+     * Returns the files included by the given file, directly or transitively, in include order.
+     */
+    @NotNull
+    public static List<PyFile> getIncludeClosure(@NotNull PyFile file) {
+        VirtualFile virtualFile = file.getOriginalFile().getVirtualFile();
+        if (virtualFile == null) return computeIncludeClosure(file);
+
+        CythonProjectCaches caches = CythonProjectCaches.getInstance(file.getProject());
+        CythonProjectCaches.IncludeClosure cached = caches.getIncludeClosure(virtualFile);
+        if (cached != null) return cached.files();
+
+        List<PyFile> files = computeIncludeClosure(file);
+        List<PsiFile> dependencies = new ArrayList<>(files);
+        dependencies.add(file.getOriginalFile());
+        caches.putIncludeClosure(virtualFile, new CythonProjectCaches.IncludeClosure(
+                CythonProjectCaches.Stamp.of(dependencies), files));
+        return files;
+    }
+
+    /**
+     * Returns the top-level CythonNamedElement declarations of a file by name.
+     */
+    @NotNull
+    public static Map<String, List<PsiElement>> getDeclarations(@NotNull PyFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                computeDeclarations(file), file));
+    }
+
+    private static boolean mayDeclare(@NotNull PyFile file, @NotNull String name) {
+        VirtualFile virtualFile = file.getVirtualFile();
+        if (virtualFile == null) return true;
+        CythonFileSummaryIndex.Summary summary = CythonFileSummaryIndex.getSummary(virtualFile, file.getProject());
+        return summary == null || summary.declarations().contains(name);
+    }
+
+    @NotNull
+    private static List<PyFile> computeIncludeClosure(@NotNull PyFile file) {
+        List<PyFile> indexed = computeIndexedIncludeClosure(file);
+        if (indexed != null) return indexed;
+
+        Set<PyFile> closure = new LinkedHashSet<>();
+        collectIncludes(file, closure);
+        closure.remove(file);
+        return List.copyOf(closure);
+    }
 
+    private static void collectIncludes(@NotNull PyFile file, @NotNull Set<PyFile> closure) {
         for (PsiElement child : file.getChildren()) {
             if (child instanceof CythonIncludeStatement include) {
                 PsiElement resolved = include.getReference().resolve();
-                if (resolved instanceof PyFile includedFile) {
-                    findCythonNamedElement(includedFile, name, results);
+                if (resolved instanceof PyFile includedFile && closure.add(includedFile)) {
                     // Handle transitive includes
-                    resolveInIncludes(includedFile, name, results, visited);
+                    collectIncludes(includedFile, closure);
                 }
             }
         }
     }
 
-    private static void findCythonNamedElement(
-            PyFile file, String name, List<RatedResolveResult> results) {
+    /**
+     * Walks the include closure through the summary index without parsing included files.
+     * Returns null if the index is unavailable or an include path isn't found next to the
+     * including file, in which case the caller resolves the include statements instead.
+     */
+    @Nullable
+    private static List<PyFile> computeIndexedIncludeClosure(@NotNull PyFile file) {
+        VirtualFile root = file.getOriginalFile().getVirtualFile();
+        if (root == null) return null;
+
+        Project project = file.getProject();
+        Set<VirtualFile> closure = new LinkedHashSet<>();
+        if (!collectIndexedIncludes(root, project, closure)) return null;
+        closure.remove(root);
+
+        PsiManager psiManager = PsiManager.getInstance(project);
+        List<PyFile> files = new ArrayList<>(closure.size());
+        for (VirtualFile included : closure) {
+            if (!(psiManager.findFile(included) instanceof PyFile includedFile)) return null;
+            files.add(includedFile);
+        }
+        return List.copyOf(files);
+    }
+
+    private static boolean collectIndexedIncludes(
+            @NotNull VirtualFile file,
+            @NotNull Project project,
+            @NotNull Set<VirtualFile> closure) {
+
+        CythonFileSummaryIndex.Summary summary = CythonFileSummaryIndex.getSummary(file, project);
+        if (summary == null) return false;
+
+        VirtualFile directory = file.getParent();
+        for (String path : summary.includes()) {
+            VirtualFile included = directory != null ? directory.findFileByRelativePath(path) : null;
+            if (included == null) return false;
+            if (closure.add(included) && !collectIndexedIncludes(included, project, closure)) return false;
+        }
+        return true;
+    }
+
+    @NotNull
+    private static Map<String, List<PsiElement>> computeDeclarations(@NotNull PyFile file) {
+        Map<String, List<PsiElement>> declarations = new HashMap<>();
         for (PsiElement child : file.getChildren()) {
-            if (child instanceof CythonNamedElement named && name.equals(named.getName())) {
-                results.add(new RatedResolveResult(RatedResolveResult.RATE_NORMAL, child));
+            if (child instanceof CythonNamedElement named && named.getName() != null) {
+                declarations.computeIfAbsent(named.getName(), k -> new ArrayList<>()).add(child);
             }
         }
+        return declarations;
     }
 }
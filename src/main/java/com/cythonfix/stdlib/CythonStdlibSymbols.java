@@ -0,0 +1,165 @@
+package com.cythonfix.stdlib;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.text.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarations of Cython's bundled .pxd packages ({@code libc.*}, {@code libcpp.*},
+ * {@code cpython.*}, {@code numpy}), read from a table shipped with the plugin.
+ *
+ * Type providers look cimported names up here instead of resolving into the real .pxd files,
+ * so those files are not parsed just to learn that {@code sqrt} returns a double. The table is
+ * versioned; names missing from it fall back to normal resolution.
+ */
+@Service
+public final class CythonStdlibSymbols {
+
+    private static final Logger LOG = Logger.getInstance(CythonStdlibSymbols.class);
+
+    private static final String RESOURCE = "/com/cythonfix/stdlib/symbols.tsv";
+    private static final String VERSION_KEY = "version";
+    private static final String VARARGS = "...";
+
+    public enum Kind { FUNCTION, TYPEDEF, CONST, STRUCT, CPPCLASS }
+
+    /** A C type as written in a signature: base type name without {@code const}, plus pointer levels. */
+    public record CType(@NotNull String baseName, int pointerDepth) {
+    }
+
+    public record Parameter(@NotNull String name, @NotNull CType type) {
+    }
+
+    /**
+     * A declaration from the table. For functions the type is the return type; for typedefs and
+     * constants it's the declared type; structs and C++ classes have none. Template parameters
+     * are only set for C++ classes.
+     */
+    public record Symbol(
+            @NotNull String module,
+            @NotNull Kind kind,
+            @NotNull String name,
+            @Nullable CType type,
+            @NotNull List<Parameter> parameters,
+            boolean varargs,
+            @NotNull List<String> templateParameters) {
+    }
+
+    private final Map<String, Map<String, Symbol>> mySymbolsByModule;
+    private final Map<String, CType> myTypedefs;
+    private final int myVersion;
+
+    public CythonStdlibSymbols() {
+        Map<String, Map<String, Symbol>> symbols = new HashMap<>();
+        Map<String, CType> typedefs = new HashMap<>();
+        int version = 0;
+        try (InputStream stream = CythonStdlibSymbols.class.getResourceAsStream(RESOURCE)) {
+            if (stream == null) throw new IOException(RESOURCE + " not found");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] columns = line.split("\t", -1);
+                if (columns[0].equals(VERSION_KEY)) {
+                    version = Integer.parseInt(columns[1]);
+                    continue;
+                }
+                Symbol symbol = parseSymbol(columns);
+                symbols.computeIfAbsent(symbol.module(), k -> new HashMap<>()).put(symbol.name(), symbol);
+                if (symbol.kind() == Kind.TYPEDEF && symbol.type() != null) {
+                    typedefs.putIfAbsent(symbol.name(), symbol.type());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Cannot load the Cython stdlib symbol table", e);
+        }
+        mySymbolsByModule = Map.copyOf(symbols);
+        myTypedefs = Map.copyOf(typedefs);
+        myVersion = version;
+    }
+
+    @NotNull
+    public static CythonStdlibSymbols getInstance() {
+        return ApplicationManager.getApplication().getService(CythonStdlibSymbols.class);
+    }
+
+    public int getVersion() {
+        return myVersion;
+    }
+
+    public boolean isKnownModule(@NotNull String module) {
+        return mySymbolsByModule.containsKey(module);
+    }
+
+    @Nullable
+    public Symbol find(@NotNull String module, @NotNull String name) {
+        Map<String, Symbol> symbols = mySymbolsByModule.get(module);
+        return symbols != null ? symbols.get(name) : null;
+    }
+
+    /**
+     * Returns the underlying type of a typedef declared in the given module, e.g. {@code double}
+     * for {@code float64_t} of {@code numpy}.
+     */
+    @Nullable
+    public CType findTypedef(@NotNull String module, @NotNull String name) {
+        Symbol symbol = find(module, name);
+        return symbol != null && symbol.kind() == Kind.TYPEDEF ? symbol.type() : null;
+    }
+
+    /**
+     * Returns the underlying type of a typedef declared in any package of the table, e.g.
+     * {@code double} for {@code float64_t}. Only meant for types used by the table itself,
+     * whose names can't be shadowed by user code.
+     */
+    @Nullable
+    public CType findTypedef(@NotNull String name) {
+        return myTypedefs.get(name);
+    }
+
+    @NotNull
+    private static Symbol parseSymbol(@NotNull String[] columns) {
+        String module = columns[0];
+        Kind kind = Kind.valueOf(StringUtil.toUpperCase(columns[1]));
+        String name = columns[2];
+        CType type = columns[3].isEmpty() ? null : parseType(columns[3]);
+
+        List<Parameter> parameters = new ArrayList<>();
+        List<String> templateParameters = new ArrayList<>();
+        boolean varargs = false;
+        for (String item : StringUtil.split(columns[4], ",")) {
+            item = item.trim();
+            if (kind == Kind.CPPCLASS) {
+                templateParameters.add(item);
+            } else if (item.equals(VARARGS)) {
+                varargs = true;
+            } else {
+                int nameStart = item.lastIndexOf(' ') + 1;
+                parameters.add(new Parameter(item.substring(nameStart), parseType(item.substring(0, nameStart))));
+            }
+        }
+        return new Symbol(module, kind, name, type, List.copyOf(parameters), varargs, List.copyOf(templateParameters));
+    }
+
+    @NotNull
+    private static CType parseType(@NotNull String text) {
+        int pointers = StringUtil.countChars(text, '*');
+        List<String> words = new ArrayList<>();
+        for (String word : StringUtil.split(text.replace('*', ' '), " ")) {
+            if (!word.equals("const")) words.add(word);
+        }
+        return new CType(String.join(" ", words), pointers);
+    }
+}
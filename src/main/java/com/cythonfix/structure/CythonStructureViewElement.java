@@ -0,0 +1,59 @@
+package com.cythonfix.structure;
+
+import com.cythonfix.resolve.CythonIncludeResolveProvider;
+import com.intellij.ide.structureView.StructureViewTreeElement;
+import com.intellij.psi.PsiElement;
+import com.jetbrains.python.psi.PyElement;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.structureView.PyStructureViewElement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A node of {@link CythonStructureViewModel}: the stock Python node, so module variables, cdef
+ * globals, nested functions and inherited members are shown as for Python, plus the top-level
+ * ctypedef/struct/enum/fused declarations of a file, which the Python node doesn't list.
+ */
+public class CythonStructureViewElement extends PyStructureViewElement {
+
+    public CythonStructureViewElement(@NotNull PyElement element) {
+        super(element);
+    }
+
+    protected CythonStructureViewElement(
+            @NotNull PyElement element, @NotNull Visibility visibility, boolean inherited, boolean field) {
+        super(element, visibility, inherited, field);
+    }
+
+    @Override
+    @NotNull
+    protected StructureViewTreeElement createChild(
+            @NotNull PyElement element, @NotNull Visibility visibility, boolean inherited, boolean field) {
+        return new CythonStructureViewElement(element, visibility, inherited, field);
+    }
+
+    @Override
+    @NotNull
+    protected Collection<PyElement> getElementChildren(@NotNull PyElement element) {
+        Collection<PyElement> children = super.getElementChildren(element);
+        if (!(element instanceof PyFile file)) return children;
+
+        // Declarations come from the table the include resolver already caches for the file
+        Set<PyElement> result = new LinkedHashSet<>(children);
+        List<PyElement> declarations = new ArrayList<>();
+        for (List<PsiElement> named : CythonIncludeResolveProvider.getDeclarations(file).values()) {
+            for (PsiElement declaration : named) {
+                if (declaration instanceof PyElement pyElement) declarations.add(pyElement);
+            }
+        }
+        declarations.sort(Comparator.comparingInt(PsiElement::getTextOffset));
+        result.addAll(declarations);
+        return result;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cythonfix.structure;
+
+import com.intellij.ide.structureView.StructureViewBuilder;
+import com.intellij.ide.structureView.StructureViewModel;
+import com.intellij.ide.structureView.TreeBasedStructureViewBuilder;
+import com.intellij.lang.PsiStructureViewFactory;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.psi.PsiFile;
+import com.jetbrains.python.psi.PyFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Structure view and file structure popup for .pyx/.pxd/.pxi files, built by
+ * {@link CythonStructureViewModel}.
+ */
+public class CythonStructureViewFactory implements PsiStructureViewFactory {
+
+    @Override
+    @Nullable
+    public StructureViewBuilder getStructureViewBuilder(@NotNull PsiFile psiFile) {
+        if (!(psiFile instanceof PyFile pyFile)) return null;
+        return new TreeBasedStructureViewBuilder() {
+            @Override
+            @NotNull
+            public StructureViewModel createStructureViewModel(@Nullable Editor editor) {
+                return new CythonStructureViewModel(pyFile, editor);
+            }
+        };
+    }
+}
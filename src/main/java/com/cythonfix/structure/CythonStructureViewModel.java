@@ -0,0 +1,35 @@
+package com.cythonfix.structure;
+
+import com.intellij.ide.structureView.StructureViewTreeElement;
+import com.intellij.ide.util.treeView.smartTree.Sorter;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.python.pro.cython.psi.CythonNamedElement;
+import com.jetbrains.python.psi.PyClass;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyTargetExpression;
+import com.jetbrains.python.structureView.PyStructureViewModel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Outline of a Cython file: the stock Python outline (classes, functions including nested
+ * ones, methods, class and instance attributes, module variables and cdef globals) plus the
+ * top-level ctypedef/struct/enum/fused declarations.
+ *
+ * Building the outline walks the file's top-level children like the Python view does; the
+ * declarations come from the per-file table the include resolver already caches.
+ */
+public class CythonStructureViewModel extends PyStructureViewModel {
+
+    public CythonStructureViewModel(@NotNull PyFile file, @Nullable Editor editor) {
+        super(file, editor, new CythonStructureViewElement(file));
+        withSorters(Sorter.ALPHA_SORTER);
+        withSuitableClasses(PyClass.class, PyFunction.class, PyTargetExpression.class, CythonNamedElement.class);
+    }
+
+    @Override
+    public boolean isAlwaysLeaf(StructureViewTreeElement element) {
+        return element.getValue() instanceof CythonNamedElement || super.isAlwaysLeaf(element);
+    }
+}
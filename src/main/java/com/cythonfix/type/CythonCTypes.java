@@ -0,0 +1,141 @@
+package com.cythonfix.type;
+
+import com.cythonfix.psi.CythonCimports;
+import com.cythonfix.stdlib.CythonStdlibSymbols;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.jetbrains.python.psi.LanguageLevel;
+import com.jetbrains.python.psi.impl.PyBuiltinCache;
+import com.jetbrains.python.psi.types.PyType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Maps declared C types to the Python types Cython coerces them to.
+ *
+ * Integer types become {@code int}, floating point types {@code float}, complex types
+ * {@code complex}, {@code bint} becomes {@code bool} and {@code char *} becomes {@code bytes}.
+ * Other pointers, memoryviews, structs and unknown typedefs have no Python counterpart and map
+ * to null.
+ * Typedefs not matched by name are looked up in {@link CythonStdlibSymbols}: for declared types
+ * only when the name is cimported from the bundled module declaring it, so a user typedef of the
+ * same name isn't mistaken for it.
+ */
+public final class CythonCTypes {
+
+    public enum Kind { INTEGER, FLOAT, COMPLEX, BOOL, BYTES, OBJECT }
+
+    private static final Set<String> INTEGER_WORDS = Set.of(
+            "char", "short", "int", "long", "signed", "unsigned"
+    );
+
+    private static final Pattern INTEGER_TYPEDEF = Pattern.compile(
+            "(npy_)?u?int(8|16|32|64|p)?(_t)?|u?long(long)?_t|(Py_)?s?size_t|Py_ssize_t|Py_hash_t"
+                    + "|ptrdiff_t|(Py_)?u?intptr_t|npy_u?(intp|byte|short|long|longlong)"
+    );
+
+    private static final Pattern FLOAT_TYPEDEF = Pattern.compile(
+            "(npy_)?(float(16|32|64|128)?|double|longdouble|half)(_t)?"
+    );
+
+    private static final Pattern COMPLEX_TYPEDEF = Pattern.compile(
+            "(npy_)?(complex(64|128|256)?|c(float|double|longdouble))(_t)?"
+    );
+
+    private CythonCTypes() {
+    }
+
+    /**
+     * Classifies a declared C type, or returns null if Cython does not coerce it to a
+     * builtin Python type.
+     */
+    @Nullable
+    public static Kind classify(@NotNull CythonDeclaredType type) {
+        if (type.isMemoryView()) return null;
+        PsiFile file = type.typeElement().getContainingFile();
+        CythonCimports cimports = file != null ? CythonCimports.of(file) : null;
+        // Arrays classify like the pointers they decay to
+        return classify(type.baseName(), type.pointerDepth() + type.arrayDimensions(),
+                cimports != null ? name -> findCimportedTypedef(name, cimports) : null);
+    }
+
+    /** Classifies a type of the stdlib table, whose typedefs are looked up in the whole table. */
+    @Nullable
+    public static Kind classify(@NotNull CythonStdlibSymbols.CType type) {
+        return classify(type.baseName(), type.pointerDepth(), CythonStdlibSymbols.getInstance()::findTypedef);
+    }
+
+    @Nullable
+    private static Kind classify(
+            @NotNull String baseName,
+            int pointerDepth,
+            @Nullable Function<String, CythonStdlibSymbols.CType> typedefs) {
+        List<String> words = List.of(baseName.split(" "));
+        String last = words.get(words.size() - 1);
+        if (pointerDepth > 0) {
+            return pointerDepth == 1 && "char".equals(last) ? Kind.BYTES : null;
+        }
+        if (words.contains("complex")) return Kind.COMPLEX;
+        if (last.equals("float") || last.equals("double")) return Kind.FLOAT;
+        if (INTEGER_WORDS.containsAll(words)) return Kind.INTEGER;
+        if (words.size() > 1) return null;
+        if (last.equals("bint")) return Kind.BOOL;
+        if (last.equals("object")) return Kind.OBJECT;
+
+        String shortName = last.substring(last.lastIndexOf('.') + 1);
+        if (INTEGER_TYPEDEF.matcher(shortName).matches()) return Kind.INTEGER;
+        if (FLOAT_TYPEDEF.matcher(shortName).matches()) return Kind.FLOAT;
+        if (COMPLEX_TYPEDEF.matcher(shortName).matches()) return Kind.COMPLEX;
+        if (typedefs == null) return null;
+
+        CythonStdlibSymbols.CType underlying = typedefs.apply(last);
+        return underlying != null ? classify(underlying.baseName(), underlying.pointerDepth(), null) : null;
+    }
+
+    /**
+     * Returns the underlying type of a typedef cimported from a bundled module, either by name
+     * ({@code from numpy cimport float64_t}) or through a module alias ({@code cnp.float64_t}).
+     */
+    @Nullable
+    private static CythonStdlibSymbols.CType findCimportedTypedef(@NotNull String name, @NotNull CythonCimports cimports) {
+        int dot = name.lastIndexOf('.');
+        String module;
+        String member;
+        if (dot >= 0) {
+            module = cimports.getModule(name.substring(0, dot));
+            member = name.substring(dot + 1);
+        } else {
+            CythonCimports.ImportedName imported = cimports.getName(name);
+            module = imported != null ? imported.module() : null;
+            member = imported != null ? imported.name() : name;
+        }
+        return module != null ? CythonStdlibSymbols.getInstance().findTypedef(module, member) : null;
+    }
+
+    /**
+     * Returns the Python type a declared C type coerces to, or null if there is none.
+     */
+    @Nullable
+    public static PyType toPyType(@NotNull CythonDeclaredType type, @NotNull PsiElement anchor) {
+        Kind kind = classify(type);
+        return kind != null ? toPyType(kind, anchor) : null;
+    }
+
+    @Nullable
+    public static PyType toPyType(@NotNull Kind kind, @NotNull PsiElement anchor) {
+        PyBuiltinCache builtins = PyBuiltinCache.getInstance(anchor);
+        return switch (kind) {
+            case INTEGER -> builtins.getIntType();
+            case FLOAT -> builtins.getFloatType();
+            case COMPLEX -> builtins.getComplexType();
+            case BOOL -> builtins.getBoolType();
+            case BYTES -> builtins.getBytesType(LanguageLevel.forElement(anchor));
+            case OBJECT -> builtins.getObjectType();
+        };
+    }
+}
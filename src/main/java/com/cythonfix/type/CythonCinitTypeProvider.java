@@ -1,7 +1,10 @@
 package com.cythonfix.type;
 
+import com.cythonfix.cache.CythonProjectCaches;
 import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.python.pro.cython.psi.CythonClass;
 import com.intellij.util.ProcessingContext;
 import com.jetbrains.python.psi.*;
@@ -11,6 +14,7 @@ import com.jetbrains.python.psi.types.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -35,12 +39,7 @@ public class CythonCinitTypeProvider extends PyTypeProviderBase {
         if (!classType.isDefinition()) return null;
         if (!(classType.getPyClass() instanceof CythonClass cythonClass)) return null;
 
-        // Only intervene if the class has no __init__ (own or inherited)
-        PyFunction init = cythonClass.findMethodByName("__init__", true, context);
-        if (init != null) return null;
-
-        // Look for __cinit__ (own or inherited)
-        PyFunction cinit = cythonClass.findMethodByName("__cinit__", true, context);
+        PyFunction cinit = findCinitConstructor(cythonClass, context);
         if (cinit == null) return null;
 
         PyFunctionType cinitFunctionType = PyFunctionTypeImpl.create(cinit, context);
@@ -48,6 +47,45 @@ public class CythonCinitTypeProvider extends PyTypeProviderBase {
         return Ref.create(callableType);
     }
 
+    /**
+     * Returns the __cinit__ to use as constructor, or null if the class has an __init__ or no
+     * __cinit__. Results are kept in {@link CythonProjectCaches} until the file of the class or of
+     * one of its ancestors changes. Classes with an unresolved ancestor aren't cached: the file
+     * that would declare it isn't known, so its stamp can't be recorded.
+     */
+    @Nullable
+    private static PyFunction findCinitConstructor(@NotNull CythonClass cythonClass, @NotNull TypeEvalContext context) {
+        VirtualFile file = cythonClass.getContainingFile().getOriginalFile().getVirtualFile();
+        if (file == null) return computeCinitConstructor(cythonClass, context);
+
+        CythonProjectCaches caches = CythonProjectCaches.getInstance(cythonClass.getProject());
+        CythonProjectCaches.ClassKey key = new CythonProjectCaches.ClassKey(file, cythonClass.getTextOffset());
+        CythonProjectCaches.Constructor cached = caches.getConstructor(key);
+        if (cached != null) return cached.cinit();
+
+        PyFunction cinit = computeCinitConstructor(cythonClass, context);
+        // __init__ and __cinit__ may be inherited, so the files of all ancestors are dependencies
+        List<PsiFile> dependencies = new ArrayList<>();
+        dependencies.add(cythonClass.getContainingFile());
+        for (PyClassLikeType ancestor : cythonClass.getAncestorTypes(context)) {
+            if (!(ancestor instanceof PyClassType ancestorType)) return cinit;
+            dependencies.add(ancestorType.getPyClass().getContainingFile());
+        }
+        caches.putConstructor(key, new CythonProjectCaches.Constructor(
+                CythonProjectCaches.Stamp.of(dependencies), cinit));
+        return cinit;
+    }
+
+    @Nullable
+    private static PyFunction computeCinitConstructor(@NotNull CythonClass cythonClass, @NotNull TypeEvalContext context) {
+        // Only intervene if the class has no __init__ (own or inherited)
+        PyFunction init = cythonClass.findMethodByName("__init__", true, context);
+        if (init != null) return null;
+
+        // Look for __cinit__ (own or inherited)
+        return cythonClass.findMethodByName("__cinit__", true, context);
+    }
+
     /**
      * Wraps __cinit__'s function type to delegate parameter resolution to __cinit__
      * while returning the class instance type (not None) as the call result.
@@ -0,0 +1,165 @@
+package com.cythonfix.type;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.PyElementTypes;
+import com.jetbrains.python.PyTokenTypes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A C type as written in a Cython declaration: the base type name plus the number of pointer
+ * levels applied to it, and the dimensions of C array declarators such as {@code buf[10]}. For
+ * typed memoryviews such as {@code double[:, ::1]} the base name is the element type and the
+ * memoryview spec holds the dimensions and layout.
+ *
+ * Built directly from SIMPLE_BASE_TYPE_DECL/COMPLEX_BASE_TYPE_DECL nodes, so reading a declared
+ * type never involves resolution or flow analysis.
+ */
+public record CythonDeclaredType(
+        @NotNull String baseName,
+        int pointerDepth,
+        int arrayDimensions,
+        @Nullable CythonMemoryView memoryView,
+        @NotNull PsiElement typeElement) {
+
+    public static final TokenSet TYPE_DECLARATIONS = TokenSet.create(
+            CythonElementTypes.SIMPLE_BASE_TYPE_DECL,
+            CythonElementTypes.COMPLEX_BASE_TYPE_DECL
+    );
+
+    private static final String CONST_MODIFIER = "const";
+
+    public boolean isPointer() {
+        return pointerDepth > 0;
+    }
+
+    /** Returns true for C arrays, which decay to a pointer when passed to a function. */
+    public boolean isArray() {
+        return arrayDimensions > 0;
+    }
+
+    public boolean isMemoryView() {
+        return memoryView != null;
+    }
+
+    /** Returns this type as the element type of a C array with the given number of dimensions. */
+    @NotNull
+    public CythonDeclaredType withArrayDimensions(int dimensions) {
+        return new CythonDeclaredType(baseName, pointerDepth, dimensions, memoryView, typeElement);
+    }
+
+    /**
+     * Returns the type as written in Cython, e.g. {@code char *}, {@code double[]} or
+     * {@code double[:, ::1]}.
+     */
+    @NotNull
+    public String getPresentableText() {
+        if (memoryView == null) {
+            String text = pointerDepth > 0 ? baseName + " " + "*".repeat(pointerDepth) : baseName;
+            return text + "[]".repeat(arrayDimensions);
+        }
+
+        List<String> axes = new ArrayList<>();
+        for (int axis = 0; axis < memoryView.ndim(); axis++) {
+            boolean contiguous = memoryView.layout() == CythonMemoryView.Layout.C_CONTIGUOUS && axis == memoryView.ndim() - 1
+                    || memoryView.layout() == CythonMemoryView.Layout.F_CONTIGUOUS && axis == 0;
+            axes.add(contiguous ? "::1" : ":");
+        }
+        return baseName + "[" + String.join(", ", axes) + "]";
+    }
+
+    /**
+     * Returns the last dotted component of the base name, e.g. {@code float64_t} for
+     * {@code np.float64_t}.
+     */
+    @NotNull
+    public String shortName() {
+        int dot = baseName.lastIndexOf('.');
+        return dot < 0 ? baseName : baseName.substring(dot + 1);
+    }
+
+    /**
+     * Reads the declared type from a type declaration node. Pointer operators that belong to
+     * the declarator (as in {@code int *p}) are passed in as declaratorPointers, since they are
+     * not part of the type declaration node itself.
+     */
+    @Nullable
+    public static CythonDeclaredType fromTypeDecl(@NotNull ASTNode typeDecl, int declaratorPointers) {
+        IElementType type = typeDecl.getElementType();
+        if (type == CythonElementTypes.COMPLEX_BASE_TYPE_DECL) {
+            ASTNode inner = typeDecl.findChildByType(TYPE_DECLARATIONS);
+            if (inner == null) return null;
+            int pointers = declaratorPointers;
+            for (ASTNode child = inner.getTreeNext(); child != null; child = child.getTreeNext()) {
+                pointers += countPointers(child);
+            }
+            return fromTypeDecl(inner, pointers);
+        }
+        if (type != CythonElementTypes.SIMPLE_BASE_TYPE_DECL) return null;
+
+        List<String> words = new ArrayList<>();
+        StringBuilder suffix = new StringBuilder();
+        int pointers = declaratorPointers;
+        CythonMemoryView memoryView = null;
+        boolean afterBrackets = false;
+        for (ASTNode child = typeDecl.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            IElementType childType = child.getElementType();
+            if (childType == TokenType.WHITE_SPACE) continue;
+            if (childType == PyTokenTypes.MULT || childType == PyTokenTypes.EXP) {
+                pointers += countPointers(child);
+            } else if (childType == PyElementTypes.SUBSCRIPTION_EXPRESSION) {
+                // Memoryview axes, e.g. double[:, ::1]
+                memoryView = CythonMemoryView.parse(child.getText());
+                afterBrackets = true;
+            } else if (childType == PyElementTypes.PARAMETER_LIST) {
+                afterBrackets = true;
+            } else if (afterBrackets) {
+                // Member types of templates, e.g. vector[int].iterator
+                suffix.append(child.getText());
+            } else if (!CONST_MODIFIER.equals(child.getText())) {
+                words.add(child.getText());
+            }
+        }
+        if (words.isEmpty()) return null;
+        return new CythonDeclaredType(String.join(" ", words) + suffix, pointers, 0, memoryView, typeDecl.getPsi());
+    }
+
+    /**
+     * Counts pointer operators in a declarator subtree ({@code *} is one level, {@code **} two).
+     * Expressions inside the declarator, such as C array sizes, are not entered.
+     */
+    public static int countPointers(@NotNull ASTNode node) {
+        IElementType type = node.getElementType();
+        if (type == PyTokenTypes.MULT) return 1;
+        if (type == PyTokenTypes.EXP) return 2;
+        if (type != CythonElementTypes.NAME_DECL && type != CythonElementTypes.COMPLEX_BASE_TYPE_DECL) return 0;
+        int count = 0;
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            count += countPointers(child);
+        }
+        return count;
+    }
+
+    /**
+     * Counts array brackets in a declarator subtree ({@code buf[10][3]} has two dimensions).
+     * Brackets inside the size expressions are not counted.
+     */
+    public static int countArrayDimensions(@NotNull ASTNode node) {
+        IElementType type = node.getElementType();
+        if (type == PyTokenTypes.LBRACKET) return 1;
+        if (type != CythonElementTypes.NAME_DECL) return 0;
+        int count = 0;
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            count += countArrayDimensions(child);
+        }
+        return count;
+    }
+}
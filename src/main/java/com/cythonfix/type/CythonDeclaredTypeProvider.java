@@ -0,0 +1,76 @@
+package com.cythonfix.type;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.openapi.util.Ref;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiNamedElement;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyNamedParameter;
+import com.jetbrains.python.psi.types.PyType;
+import com.jetbrains.python.psi.types.PyTypeProviderBase;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Types names declared with a C type from their declaration instead of Python inference.
+ *
+ * For {@code cdef double x} every reference to {@code x} in the scope is {@code float},
+ * regardless of what is assigned to it later, so there is no need for flow analysis. Lookups go
+ * through {@link CythonDeclaredTypes}, which builds one table per scope. Pointers other than
+ * {@code char *} are reported as having no Python type rather than being inferred.
+ */
+public class CythonDeclaredTypeProvider extends PyTypeProviderBase {
+
+    @Override
+    @Nullable
+    public Ref<PyType> getReferenceType(
+            @NotNull PsiElement referenceTarget,
+            @NotNull TypeEvalContext context,
+            @Nullable PsiElement anchor) {
+
+        if (referenceTarget instanceof PyNamedParameter) return null;
+        if (!(referenceTarget instanceof PsiNamedElement named)) return null;
+        if (!CythonPsiUtil.isInCythonFile(referenceTarget)) return null;
+
+        String name = named.getName();
+        ScopeOwner owner = ScopeUtil.getScopeOwner(referenceTarget);
+        if (name == null || owner == null) return null;
+
+        CythonDeclaredType declared = CythonDeclaredTypes.getDeclaredType(owner, name);
+        if (declared == null) return null;
+
+        Ref<PyType> type = toTypeRef(declared, referenceTarget);
+        if (type != null || declared.isPointer() || declared.isArray() || declared.isMemoryView()) return type;
+
+        // Locals of a fused type, e.g. `cdef real tmp`
+        PsiElement fused = CythonFusedTypes.findFusedDeclaration(declared.typeElement().getNode());
+        PyType union = fused != null ? CythonFusedTypes.getUnionType(fused, referenceTarget) : null;
+        return union != null ? Ref.create(union) : null;
+    }
+
+    @Override
+    @Nullable
+    public Ref<PyType> getParameterType(
+            @NotNull PyNamedParameter param,
+            @NotNull PyFunction func,
+            @NotNull TypeEvalContext context) {
+
+        if (!CythonPsiUtil.isInCythonFile(param)) return null;
+
+        CythonDeclaredType declared = CythonDeclaredTypes.getParameterType(param);
+        return declared != null ? toTypeRef(declared, param) : null;
+    }
+
+    @Nullable
+    private static Ref<PyType> toTypeRef(@NotNull CythonDeclaredType declared, @NotNull PsiElement anchor) {
+        PyType type = CythonCTypes.toPyType(declared, anchor);
+        if (type != null) return Ref.create(type);
+        // C pointers and arrays have no Python type; don't let inference guess one
+        if (declared.isPointer() || declared.isArray()) return Ref.create(null);
+        // Structs and cdef classes are left to the platform
+        return null;
+    }
+}
@@ -0,0 +1,227 @@
+package com.cythonfix.type;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.psi.FixedCythonElementTypes;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.PyElementTypes;
+import com.jetbrains.python.PyTokenTypes;
+import com.jetbrains.python.codeInsight.controlflow.ControlFlowCache;
+import com.jetbrains.python.codeInsight.controlflow.ScopeOwner;
+import com.jetbrains.python.codeInsight.dataflow.scope.ScopeUtil;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyNamedParameter;
+import com.jetbrains.python.psi.PyParameter;
+import com.jetbrains.python.psi.PyStatementList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-scope tables of names declared with a C type ({@code cdef double x}, {@code cdef int *p},
+ * typed parameters, cdef class attributes).
+ *
+ * A table is built in one walk over the scope owner's own statements and cached on the owner
+ * until its file changes. Declared types are purely syntactic, so the table never depends on
+ * other files.
+ */
+public final class CythonDeclaredTypes {
+
+    /** Parents whose type declarations do not declare names in the enclosing scope. */
+    private static final TokenSet NON_DECLARING_PARENTS = TokenSet.create(
+            CythonElementTypes.TYPECAST_EXPRESSION,
+            CythonElementTypes.SIZEOF_EXPRESSION,
+            CythonElementTypes.COMPLEX_BASE_TYPE_DECL,
+            CythonElementTypes.NAMED_PARAMETER,
+            FixedCythonElementTypes.UNNAMED_PARAMETER,
+            PyElementTypes.PARAMETER_LIST
+    );
+
+    /** Declarations whose declarators are members of a C type rather than variables. */
+    private static final String[][] TYPE_DEFINITIONS = {
+            {"ctypedef"},
+            {"cdef", "struct"},
+            {"cdef", "packed", "struct"},
+            {"cdef", "union"},
+            {"cdef", "enum"},
+            {"cdef", "cppclass"},
+    };
+
+    private CythonDeclaredTypes() {
+    }
+
+    /**
+     * Returns the C-typed names declared directly in the given scope.
+     */
+    @NotNull
+    public static Map<String, CythonDeclaredType> getScopeTable(@NotNull ScopeOwner owner) {
+        return CachedValuesManager.getCachedValue(owner, () -> CachedValueProvider.Result.create(
+                buildTable(owner), owner.getContainingFile()));
+    }
+
+    /**
+     * Returns the declared C type of a name in the given scope, or null if the name is not
+     * declared with a C type there.
+     */
+    @Nullable
+    public static CythonDeclaredType getDeclaredType(@NotNull ScopeOwner owner, @NotNull String name) {
+        return getScopeTable(owner).get(name);
+    }
+
+    /**
+     * Returns the declared C type of a name as seen from the given scope: its own declaration,
+     * or the nearest one in an enclosing scope.
+     */
+    @Nullable
+    public static CythonDeclaredType findDeclaredType(@NotNull ScopeOwner owner, @NotNull String name) {
+        for (ScopeOwner scope = owner; scope != null; scope = ScopeUtil.getScopeOwner(scope)) {
+            CythonDeclaredType type = getDeclaredType(scope, name);
+            if (type != null) return type;
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the name is bound in a function or class scope between the element and
+     * the module, i.e. a module-level binding such as a cimport is shadowed.
+     */
+    public static boolean isBoundInLocalScopes(@NotNull PsiElement element, @NotNull String name) {
+        for (ScopeOwner owner = ScopeUtil.getScopeOwner(element);
+             owner != null && !(owner instanceof PyFile);
+             owner = ScopeUtil.getScopeOwner(owner)) {
+            if (ControlFlowCache.getScope(owner).containsDeclaration(name)) return true;
+            if (getDeclaredType(owner, name) != null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the declared C type of a typed parameter like {@code double *x}.
+     */
+    @Nullable
+    public static CythonDeclaredType getParameterType(@NotNull PyNamedParameter param) {
+        ASTNode typeDecl = param.getNode().findChildByType(CythonDeclaredType.TYPE_DECLARATIONS);
+        if (typeDecl == null) return null;
+        ASTNode declarator = param.getNode().findChildByType(CythonElementTypes.NAME_DECL);
+        int declaratorPointers = declarator != null ? CythonDeclaredType.countPointers(declarator) : 0;
+        return CythonDeclaredType.fromTypeDecl(typeDecl, declaratorPointers);
+    }
+
+    @NotNull
+    private static Map<String, CythonDeclaredType> buildTable(@NotNull ScopeOwner owner) {
+        Map<String, CythonDeclaredType> table = new HashMap<>();
+        if (owner instanceof PyFunction function) {
+            for (PyParameter parameter : function.getParameterList().getParameters()) {
+                if (parameter instanceof PyNamedParameter named && named.getName() != null) {
+                    CythonDeclaredType type = getParameterType(named);
+                    if (type != null) table.putIfAbsent(named.getName(), type);
+                }
+            }
+        }
+        for (ASTNode child = owner.getNode().getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            collectDeclarations(child, table);
+        }
+        return table.isEmpty() ? Collections.emptyMap() : table;
+    }
+
+    private static void collectDeclarations(@NotNull ASTNode node, @NotNull Map<String, CythonDeclaredType> table) {
+        PsiElement psi = node.getPsi();
+        // Nested functions and classes have their own tables
+        if (psi instanceof ScopeOwner || isTypeDefinition(psi)) return;
+
+        if (CythonDeclaredType.TYPE_DECLARATIONS.contains(node.getElementType())) {
+            ASTNode parent = node.getTreeParent();
+            if (parent != null && !NON_DECLARING_PARENTS.contains(parent.getElementType())
+                    && !(parent.getPsi() instanceof PyFunction)) {
+                collectDeclarators(node, table);
+            }
+            return;
+        }
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            collectDeclarations(child, table);
+        }
+    }
+
+    /**
+     * Records the declarators following a type declaration, e.g. {@code x}, {@code *p} and
+     * {@code y} in {@code cdef double x = 0, *p, y}.
+     */
+    private static void collectDeclarators(@NotNull ASTNode typeDecl, @NotNull Map<String, CythonDeclaredType> table) {
+        boolean inInitializer = false;
+        int pendingPointers = 0;
+        for (ASTNode sibling = typeDecl.getTreeNext(); sibling != null; sibling = sibling.getTreeNext()) {
+            IElementType type = sibling.getElementType();
+            if (type == TokenType.WHITE_SPACE) continue;
+            if (CythonDeclaredType.TYPE_DECLARATIONS.contains(type) || type == PyTokenTypes.COLON) break;
+            if (type == PyTokenTypes.COMMA) {
+                inInitializer = false;
+                pendingPointers = 0;
+            } else if (type == PyTokenTypes.EQ) {
+                inInitializer = true;
+            } else if (inInitializer) {
+                continue;
+            } else if (type == PyTokenTypes.MULT || type == PyTokenTypes.EXP) {
+                pendingPointers += CythonDeclaredType.countPointers(sibling);
+            } else {
+                String name = getDeclaredName(sibling);
+                if (name != null) {
+                    int pointers = pendingPointers + CythonDeclaredType.countPointers(sibling);
+                    CythonDeclaredType declared = CythonDeclaredType.fromTypeDecl(typeDecl, pointers);
+                    int dimensions = CythonDeclaredType.countArrayDimensions(sibling) + countTrailingBrackets(sibling);
+                    if (declared != null) table.putIfAbsent(name, declared.withArrayDimensions(dimensions));
+                }
+                pendingPointers = 0;
+            }
+        }
+    }
+
+    /** Counts array brackets that follow a declarator up to the next comma or initializer. */
+    private static int countTrailingBrackets(@NotNull ASTNode declarator) {
+        int count = 0;
+        for (ASTNode sibling = declarator.getTreeNext(); sibling != null; sibling = sibling.getTreeNext()) {
+            IElementType type = sibling.getElementType();
+            if (type == PyTokenTypes.COMMA || type == PyTokenTypes.EQ || type == PyTokenTypes.COLON
+                    || CythonDeclaredType.TYPE_DECLARATIONS.contains(type)) {
+                break;
+            }
+            if (type == PyTokenTypes.LBRACKET) count++;
+        }
+        return count;
+    }
+
+    @Nullable
+    private static String getDeclaredName(@NotNull ASTNode declarator) {
+        if (declarator.getPsi() instanceof PsiNamedElement named && named.getName() != null) {
+            return named.getName();
+        }
+        if (declarator.getElementType() == PyTokenTypes.IDENTIFIER) {
+            return declarator.getText();
+        }
+        if (declarator.getElementType() != CythonElementTypes.NAME_DECL) return null;
+        for (ASTNode child = declarator.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            String name = getDeclaredName(child);
+            if (name != null) return name;
+        }
+        return null;
+    }
+
+    private static boolean isTypeDefinition(@NotNull PsiElement element) {
+        PsiElement parent = element.getParent();
+        if (!(parent instanceof PyStatementList) && !(parent instanceof PyFile)) return false;
+        for (String[] words : TYPE_DEFINITIONS) {
+            if (CythonPsiUtil.startsWithWords(element, words)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.cythonfix.type;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.openapi.util.Ref;
+import com.jetbrains.python.psi.PyCallExpression;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.types.PyCallableParameter;
+import com.jetbrains.python.psi.types.PyCallableParameterImpl;
+import com.jetbrains.python.psi.types.PyCallableType;
+import com.jetbrains.python.psi.types.PyCallableTypeImpl;
+import com.jetbrains.python.psi.types.PyFunctionType;
+import com.jetbrains.python.psi.types.PyType;
+import com.jetbrains.python.psi.types.PyTypeProviderBase;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives calls to {@code cdef extern} functions a callable type built from their cached
+ * {@link CythonSignature}, so parameter info shows {@code qhT *, char *, char *} instead of the
+ * synthetic names of unnamed parameters. Functions declared with {@code ...} get a callable
+ * type without parameters, which accepts any arguments, as in {@link CythonStdlibTypeProvider}.
+ *
+ * Extern functions whose parameters are all named and that take no varargs are left to the
+ * platform.
+ */
+public class CythonExternSignatureTypeProvider extends PyTypeProviderBase {
+
+    @Override
+    @Nullable
+    public Ref<@Nullable PyCallableType> prepareCalleeTypeForCall(
+            @Nullable PyType type,
+            @NotNull PyCallExpression call,
+            @NotNull TypeEvalContext context) {
+
+        // extern functions can only be called from Cython code
+        if (!(type instanceof PyFunctionType functionType) || !CythonPsiUtil.isInCythonFile(call)) return null;
+        if (!(functionType.getCallable() instanceof PyFunction function)) return null;
+        if (!CythonPsiUtil.isInCythonFile(function) || function.getContainingClass() != null) return null;
+
+        CythonSignature signature = CythonSignature.of(function);
+        if (!signature.extern() || !signature.hasUnnamedParameters() && !signature.varargs()) return null;
+
+        List<PyCallableParameter> parameters = signature.varargs() ? null : toParameters(signature, function);
+        PyType returnType = signature.returnType() != null ? CythonCTypes.toPyType(signature.returnType(), function) : null;
+        return Ref.create(new PyCallableTypeImpl(parameters, returnType));
+    }
+
+    @NotNull
+    private static List<PyCallableParameter> toParameters(@NotNull CythonSignature signature, @NotNull PyFunction anchor) {
+        List<PyCallableParameter> parameters = new ArrayList<>();
+        for (CythonSignature.Parameter parameter : signature.parameters()) {
+            CythonDeclaredType declared = parameter.type();
+            PyType type = declared != null ? CythonCTypes.toPyType(declared, anchor) : null;
+            String name = parameter.isUnnamed() && declared != null ? declared.getPresentableText() : parameter.name();
+            parameters.add(PyCallableParameterImpl.nonPsi(name, type));
+        }
+        return parameters;
+    }
+}
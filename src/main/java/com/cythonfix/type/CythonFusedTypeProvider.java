@@ -0,0 +1,50 @@
+package com.cythonfix.type;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.Ref;
+import com.intellij.psi.PsiElement;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyNamedParameter;
+import com.jetbrains.python.psi.types.PyType;
+import com.jetbrains.python.psi.types.PyTypeProviderBase;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Types parameters declared with a {@code ctypedef fused} type as the union of the fused
+ * type's specializations, e.g. {@code real x} with {@code ctypedef fused real: float; double}
+ * becomes {@code float}, and {@code integral_or_real x} becomes {@code int | float}.
+ *
+ * Specialization sets come from {@link CythonFusedTypes}, so only the first parameter that
+ * refers to a given fused type enumerates its members.
+ */
+public class CythonFusedTypeProvider extends PyTypeProviderBase {
+
+    @Override
+    @Nullable
+    public Ref<PyType> getParameterType(
+            @NotNull PyNamedParameter param,
+            @NotNull PyFunction func,
+            @NotNull TypeEvalContext context) {
+
+        if (!CythonPsiUtil.isInCythonFile(param)) return null;
+
+        ASTNode typeDecl = param.getNode().findChildByType(CythonDeclaredType.TYPE_DECLARATIONS);
+        if (typeDecl == null) return null;
+
+        // Pointers to fused types have no Python counterpart
+        ASTNode declarator = param.getNode().findChildByType(CythonElementTypes.NAME_DECL);
+        int declaratorPointers = declarator != null ? CythonDeclaredType.countPointers(declarator) : 0;
+        CythonDeclaredType declared = CythonDeclaredType.fromTypeDecl(typeDecl, declaratorPointers);
+        if (declared == null || declared.isPointer() || declared.isMemoryView()) return null;
+
+        PsiElement declaration = CythonFusedTypes.findFusedDeclaration(typeDecl);
+        if (declaration == null) return null;
+
+        PyType union = CythonFusedTypes.getUnionType(declaration, param);
+        return union != null ? Ref.create(union) : null;
+    }
+}
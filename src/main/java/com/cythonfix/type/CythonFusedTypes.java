@@ -0,0 +1,116 @@
+package com.cythonfix.type;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.python.pro.cython.psi.CythonNamedElement;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.resolve.PyResolveContext;
+import com.jetbrains.python.psi.types.PyType;
+import com.jetbrains.python.psi.types.PyUnionType;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specialization sets of {@code ctypedef fused} declarations.
+ *
+ * The member list of a fused type is cached on its declaration and depends only on the file
+ * that contains it, so editing one .pxi invalidates just the fused types declared there. Type
+ * providers evaluating fused-typed parameters pay for enumerating the members once per edit.
+ */
+public final class CythonFusedTypes {
+
+    private CythonFusedTypes() {
+    }
+
+    /**
+     * Resolves the type name of a declaration node (e.g. {@code real} in {@code real x}) and
+     * returns the fused declaration it refers to, or null if it is not a fused type.
+     *
+     * The result is cached on the type declaration so repeated evaluations of the same parameter
+     * or local don't resolve the type name again. A declaration in the same file only depends on
+     * that file; a miss or a declaration elsewhere depends on any PSI change, since cimports and
+     * includes can make the name resolve to a different fused type.
+     */
+    @Nullable
+    public static PsiElement findFusedDeclaration(@NotNull ASTNode typeDecl) {
+        if (typeDecl.getElementType() != CythonElementTypes.SIMPLE_BASE_TYPE_DECL) return null;
+        PsiElement element = typeDecl.getPsi();
+        PsiElement declaration = CachedValuesManager.getCachedValue(element, () -> {
+            PsiElement resolved = resolveFusedDeclaration(element);
+            PsiFile file = element.getContainingFile();
+            return resolved != null && resolved.getContainingFile() == file
+                    ? CachedValueProvider.Result.create(resolved, file)
+                    : CachedValueProvider.Result.create(resolved, PsiModificationTracker.MODIFICATION_COUNT);
+        });
+        return declaration != null && declaration.isValid() ? declaration : null;
+    }
+
+    @Nullable
+    private static PsiElement resolveFusedDeclaration(@NotNull PsiElement typeDecl) {
+        ASTNode typeName = typeDecl.getNode().findChildByType(CythonElementTypes.REFERENCE_EXPRESSION);
+        if (typeName == null || !(typeName.getPsi() instanceof PyReferenceExpression reference)) return null;
+
+        TypeEvalContext context = TypeEvalContext.codeAnalysis(typeDecl.getProject(), typeDecl.getContainingFile());
+        PsiElement resolved = reference.getReference(PyResolveContext.defaultContext(context)).resolve();
+        PsiElement declaration = PsiTreeUtil.getParentOfType(resolved, CythonNamedElement.class, false);
+        return declaration != null && getSpecializations(declaration) != null ? declaration : null;
+    }
+
+    /**
+     * Returns the member types of a {@code ctypedef fused} declaration, in declaration order,
+     * or null if the element is not a fused type declaration.
+     */
+    @Nullable
+    public static List<CythonDeclaredType> getSpecializations(@NotNull PsiElement declaration) {
+        return CachedValuesManager.getCachedValue(declaration, () -> CachedValueProvider.Result.create(
+                computeSpecializations(declaration), declaration.getContainingFile()));
+    }
+
+    /**
+     * Returns the union of the Python types of a fused declaration's specializations, or null
+     * if some specialization has no Python counterpart.
+     */
+    @Nullable
+    public static PyType getUnionType(@NotNull PsiElement declaration, @NotNull PsiElement anchor) {
+        List<CythonDeclaredType> specializations = getSpecializations(declaration);
+        if (specializations == null || specializations.isEmpty()) return null;
+
+        List<PyType> members = new ArrayList<>();
+        for (CythonDeclaredType specialization : specializations) {
+            PyType member = CythonCTypes.toPyType(specialization, anchor);
+            if (member == null) return null;
+            members.add(member);
+        }
+        return PyUnionType.union(members);
+    }
+
+    @Nullable
+    private static List<CythonDeclaredType> computeSpecializations(@NotNull PsiElement declaration) {
+        if (!CythonPsiUtil.startsWithWords(declaration, "ctypedef", "fused")) return null;
+        List<CythonDeclaredType> members = new ArrayList<>();
+        collectMembers(declaration.getNode(), members);
+        return members;
+    }
+
+    private static void collectMembers(@NotNull ASTNode node, @NotNull List<CythonDeclaredType> members) {
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (CythonDeclaredType.TYPE_DECLARATIONS.contains(child.getElementType())) {
+                CythonDeclaredType member = CythonDeclaredType.fromTypeDecl(child, 0);
+                if (member != null) members.add(member);
+            } else {
+                collectMembers(child, members);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cythonfix.type;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The dimensions and memory layout of a typed memoryview declaration, read from its brackets:
+ * {@code double[:, ::1]} is 2-D C-contiguous, {@code double[::1, :]} 2-D Fortran-contiguous and
+ * {@code double[:, :]} 2-D strided.
+ */
+public record CythonMemoryView(int ndim, @NotNull Layout layout) {
+
+    public enum Layout { C_CONTIGUOUS, F_CONTIGUOUS, STRIDED }
+
+    private static final String CONTIGUOUS_AXIS = "::1";
+
+    /**
+     * Returns true if a view of this layout can be passed where the given layout is declared
+     * without a copy: strided parameters accept anything, contiguous ones only the same layout.
+     * One-dimensional views are C- and Fortran-contiguous at once.
+     */
+    public boolean isCompatibleLayout(@NotNull CythonMemoryView declared) {
+        if (declared.layout == Layout.STRIDED || declared.layout == layout) return true;
+        return ndim == 1 && layout != Layout.STRIDED;
+    }
+
+    /** Describes the view for messages, e.g. {@code 2-D C-contiguous}. */
+    @NotNull
+    public String describe() {
+        String layoutName = switch (layout) {
+            case C_CONTIGUOUS -> "C-contiguous";
+            case F_CONTIGUOUS -> "Fortran-contiguous";
+            case STRIDED -> "strided";
+        };
+        return ndim + "-D " + layoutName;
+    }
+
+    /**
+     * Parses the bracketed axis specification, e.g. {@code [:, ::1]}. Returns null if the text
+     * is not a memoryview specification.
+     */
+    @Nullable
+    public static CythonMemoryView parse(@NotNull String brackets) {
+        String text = brackets.trim();
+        if (!text.startsWith("[") || !text.endsWith("]") || text.indexOf(':') < 0) return null;
+
+        List<String> axes = new ArrayList<>();
+        for (String axis : text.substring(1, text.length() - 1).split(",")) {
+            axes.add(axis.replaceAll("\\s+", ""));
+        }
+        if (axes.isEmpty() || !axes.stream().allMatch(axis -> axis.startsWith(":"))) return null;
+
+        Layout layout = Layout.STRIDED;
+        if (axes.get(axes.size() - 1).equals(CONTIGUOUS_AXIS)) {
+            layout = Layout.C_CONTIGUOUS;
+        } else if (axes.size() > 1 && axes.get(0).equals(CONTIGUOUS_AXIS)) {
+            layout = Layout.F_CONTIGUOUS;
+        }
+        return new CythonMemoryView(axes.size(), layout);
+    }
+}
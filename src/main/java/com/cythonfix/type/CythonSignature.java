@@ -0,0 +1,184 @@
+package com.cythonfix.type;
+
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.psi.FixedCythonElementTypes;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.python.pro.cython.psi.elementTypes.CythonElementTypes;
+import com.jetbrains.python.PyTokenTypes;
+import com.jetbrains.python.psi.PyFunction;
+import com.jetbrains.python.psi.PyNamedParameter;
+import com.jetbrains.python.psi.PyParameter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The C signature of a function: declared parameter and return types, arity, the
+ * {@code except} clause and whether it is declared in a {@code cdef extern} block. Read once
+ * per function and cached until its file changes, so call-site checks and parameter info match
+ * arguments against it instead of re-reading the parameter list's declarations on every call.
+ *
+ * Whether the function needs the GIL is summarized separately by
+ * {@code CythonGilSummaries}.
+ */
+public record CythonSignature(
+        @NotNull List<Parameter> parameters,
+        @Nullable CythonDeclaredType returnType,
+        int requiredCount,
+        boolean varargs,
+        @Nullable String exceptClause,
+        boolean extern) {
+
+    /** A parameter; the type is null for untyped parameters. */
+    public record Parameter(@Nullable String name, @Nullable CythonDeclaredType type, @NotNull PyParameter element) {
+
+        /** Returns true for parameters declared by type only, as in {@code void f(char *)}. */
+        public boolean isUnnamed() {
+            return element.getNode().getElementType() == FixedCythonElementTypes.UNNAMED_PARAMETER;
+        }
+
+        /** Returns the parameter as written, e.g. {@code char *}, {@code double x} or {@code x}. */
+        @NotNull
+        public String getPresentableText() {
+            if (type == null) return name != null ? name : "?";
+            return isUnnamed() || name == null ? type.getPresentableText() : type.getPresentableText() + " " + name;
+        }
+    }
+
+    private static final String VARARGS = "...";
+    private static final String EXCEPT = "except";
+    private static final String NOEXCEPT = "noexcept";
+    private static final String VOID = "void";
+
+    @NotNull
+    public static CythonSignature of(@NotNull PyFunction function) {
+        return CachedValuesManager.getCachedValue(function, () -> CachedValueProvider.Result.create(
+                compute(function), function.getContainingFile()));
+    }
+
+    /** Returns the parameter with the given name, or null. */
+    @Nullable
+    public Parameter find(@NotNull String name) {
+        for (Parameter parameter : parameters) {
+            if (name.equals(parameter.name())) return parameter;
+        }
+        return null;
+    }
+
+    /** Returns true if any parameter is declared as a typed memoryview. */
+    public boolean hasMemoryViews() {
+        for (Parameter parameter : parameters) {
+            if (parameter.type() != null && parameter.type().isMemoryView()) return true;
+        }
+        return false;
+    }
+
+    /** Returns true if any parameter is declared by type only. */
+    public boolean hasUnnamedParameters() {
+        for (Parameter parameter : parameters) {
+            if (parameter.isUnnamed()) return true;
+        }
+        return false;
+    }
+
+    /** Returns the maximum number of arguments, or -1 for {@code ...} and {@code *args}. */
+    public int maxCount() {
+        return varargs ? -1 : parameters.size();
+    }
+
+    /** Returns the signature as written, e.g. {@code (qhT *, char *, char *)}. */
+    @NotNull
+    public String getPresentableParameters() {
+        String text = parameters.stream().map(Parameter::getPresentableText).collect(Collectors.joining(", "));
+        if (varargs && !parameters.isEmpty()) text += ", ";
+        return "(" + text + (varargs ? VARARGS : "") + ")";
+    }
+
+    @NotNull
+    private static CythonSignature compute(@NotNull PyFunction function) {
+        List<Parameter> parameters = new ArrayList<>();
+        int required = 0;
+        boolean varargs = function.getParameterList().getText().contains(VARARGS);
+        for (PyParameter parameter : function.getParameterList().getParameters()) {
+            if (parameter instanceof PyNamedParameter named) {
+                if (named.isPositionalContainer() || named.isKeywordContainer()) {
+                    varargs = true;
+                    continue;
+                }
+                parameters.add(new Parameter(named.getName(), CythonDeclaredTypes.getParameterType(named), parameter));
+                if (!hasDefault(named)) required++;
+            } else if (parameter.getName() != null) {
+                parameters.add(new Parameter(parameter.getName(), null, parameter));
+            }
+        }
+        if (isVoidParameterList(parameters)) {
+            parameters.clear();
+            required = 0;
+        }
+        return new CythonSignature(List.copyOf(parameters), getReturnType(function), required, varargs,
+                getExceptClause(CythonPsiUtil.getHeaderWords(function)),
+                CythonPsiUtil.findExternBlock(function) != null);
+    }
+
+    /**
+     * Returns true if the parameter has a default value. hasDefaultValue() is always false for
+     * Cython parameters (see FixedCythonNamedParameter), and the text can contain {@code =} in
+     * its type, as in {@code np.ndarray[double, ndim=1] a}, so look for the parameter's own
+     * {@code =} among its direct children.
+     */
+    private static boolean hasDefault(@NotNull PyNamedParameter parameter) {
+        return parameter.getNode().findChildByType(PyTokenTypes.EQ) != null;
+    }
+
+    /** Returns true for a C parameter list of a single unnamed {@code void}, as in {@code f(void)}. */
+    private static boolean isVoidParameterList(@NotNull List<Parameter> parameters) {
+        if (parameters.size() != 1 || !parameters.get(0).isUnnamed()) return false;
+        CythonDeclaredType type = parameters.get(0).type();
+        if (type == null) return VOID.equals(parameters.get(0).element().getText().trim());
+        return !type.isPointer() && !type.isArray() && VOID.equals(type.baseName());
+    }
+
+    /**
+     * Reads the return type of a cdef function, e.g. {@code char *} in {@code cdef char *f()}.
+     */
+    @Nullable
+    private static CythonDeclaredType getReturnType(@NotNull PyFunction function) {
+        ASTNode typeDecl = function.getNode().findChildByType(CythonDeclaredType.TYPE_DECLARATIONS);
+        if (typeDecl == null) return null;
+        int pointers = 0;
+        for (ASTNode sibling = typeDecl.getTreeNext(); sibling != null; sibling = sibling.getTreeNext()) {
+            IElementType type = sibling.getElementType();
+            if (type == PyTokenTypes.MULT || type == PyTokenTypes.EXP || type == CythonElementTypes.NAME_DECL) {
+                pointers += CythonDeclaredType.countPointers(sibling);
+            }
+            if (type == PyTokenTypes.IDENTIFIER || type == CythonElementTypes.NAME_DECL) break;
+        }
+        return CythonDeclaredType.fromTypeDecl(typeDecl, pointers);
+    }
+
+    /**
+     * Returns the exception clause, e.g. {@code except -1}, {@code except? -1}, {@code except *},
+     * {@code except +} or {@code noexcept}, or null if there is none.
+     */
+    @Nullable
+    private static String getExceptClause(@NotNull List<String> headerWords) {
+        int start = headerWords.indexOf(EXCEPT);
+        if (start < 0) return headerWords.contains(NOEXCEPT) ? NOEXCEPT : null;
+        int i = start + 1;
+        boolean optional = i < headerWords.size() && headerWords.get(i).equals("?");
+        if (optional) i++;
+        StringBuilder value = new StringBuilder();
+        for (; i < headerWords.size(); i++) {
+            String word = headerWords.get(i);
+            if (word.equals("nogil") || word.equals("with") || word.equals(":")) break;
+            value.append(word);
+        }
+        return EXCEPT + (optional ? "?" : "") + (value.isEmpty() ? "" : " " + value);
+    }
+}
@@ -0,0 +1,89 @@
+package com.cythonfix.type;
+
+import com.cythonfix.psi.CythonCimports;
+import com.cythonfix.psi.CythonPsiUtil;
+import com.cythonfix.stdlib.CythonStdlibSymbols;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.QualifiedName;
+import com.jetbrains.python.psi.PyExpression;
+import com.jetbrains.python.psi.PyFile;
+import com.jetbrains.python.psi.PyReferenceExpression;
+import com.jetbrains.python.psi.types.PyCallableParameter;
+import com.jetbrains.python.psi.types.PyCallableParameterImpl;
+import com.jetbrains.python.psi.types.PyCallableTypeImpl;
+import com.jetbrains.python.psi.types.PyType;
+import com.jetbrains.python.psi.types.PyTypeProviderBase;
+import com.jetbrains.python.psi.types.TypeEvalContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Types names cimported from Cython's bundled packages from {@link CythonStdlibSymbols}, so
+ * {@code from libc.math cimport sqrt} followed by {@code sqrt(x)} is typed as {@code float}
+ * without parsing {@code libc/math.pxd}.
+ *
+ * Functions get a callable type built from their C signature, constants the Python type their
+ * C type coerces to. Names rebound in an enclosing function or class scope are left to normal
+ * resolution, as are names missing from the table.
+ */
+public class CythonStdlibTypeProvider extends PyTypeProviderBase {
+
+    @Override
+    @Nullable
+    public PyType getReferenceExpressionType(
+            @NotNull PyReferenceExpression referenceExpression,
+            @NotNull TypeEvalContext context) {
+
+        if (!CythonPsiUtil.isInCythonFile(referenceExpression)) return null;
+        String name = referenceExpression.getReferencedName();
+        if (name == null) return null;
+
+        PsiFile file = referenceExpression.getContainingFile();
+        if (!(file instanceof PyFile)) return null;
+        CythonCimports cimports = CythonCimports.of(file);
+
+        CythonStdlibSymbols.Symbol symbol;
+        PyExpression qualifier = referenceExpression.getQualifier();
+        if (qualifier == null) {
+            CythonCimports.ImportedName imported = cimports.getName(name);
+            if (imported == null || CythonDeclaredTypes.isBoundInLocalScopes(referenceExpression, name)) return null;
+            symbol = CythonStdlibSymbols.getInstance().find(imported.module(), imported.name());
+        } else {
+            if (!(qualifier instanceof PyReferenceExpression qualifierReference)) return null;
+            QualifiedName qualifiedName = qualifierReference.asQualifiedName();
+            String module = qualifiedName != null ? cimports.getModule(qualifiedName.toString()) : null;
+            if (module == null) return null;
+            symbol = CythonStdlibSymbols.getInstance().find(module, name);
+        }
+        return symbol != null ? toPyType(symbol, referenceExpression) : null;
+    }
+
+    @Nullable
+    private static PyType toPyType(@NotNull CythonStdlibSymbols.Symbol symbol, @NotNull PsiElement anchor) {
+        return switch (symbol.kind()) {
+            case FUNCTION -> new PyCallableTypeImpl(
+                    symbol.varargs() ? null : toParameters(symbol, anchor), toPyType(symbol.type(), anchor));
+            case CONST -> toPyType(symbol.type(), anchor);
+            case TYPEDEF, STRUCT, CPPCLASS -> null;
+        };
+    }
+
+    @NotNull
+    private static List<PyCallableParameter> toParameters(@NotNull CythonStdlibSymbols.Symbol symbol, @NotNull PsiElement anchor) {
+        List<PyCallableParameter> parameters = new ArrayList<>();
+        for (CythonStdlibSymbols.Parameter parameter : symbol.parameters()) {
+            parameters.add(PyCallableParameterImpl.nonPsi(parameter.name(), toPyType(parameter.type(), anchor)));
+        }
+        return parameters;
+    }
+
+    @Nullable
+    private static PyType toPyType(@Nullable CythonStdlibSymbols.CType type, @NotNull PsiElement anchor) {
+        CythonCTypes.Kind kind = type != null ? CythonCTypes.classify(type) : null;
+        return kind != null ? CythonCTypes.toPyType(kind, anchor) : null;
+    }
+}
@@ -0,0 +1,109 @@
+package com.cythonfix.perf;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.jetbrains.python.inspections.PyArgumentListInspection;
+import com.jetbrains.python.inspections.PyTypeCheckerInspection;
+import com.jetbrains.python.inspections.unresolvedReference.PyUnresolvedReferencesInspection;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Highlighting and reformat latency of realistic Cython modules, checked against the stored
+ * baselines in perf-baselines.properties.
+ */
+public class CythonHighlightingPerformanceTest extends BasePlatformTestCase {
+
+    private static final int TYPICAL_MODULE_LINES = 10_000;
+
+    @Override
+    protected String getTestDataPath() {
+        return "src/perfTest/testData";
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        myFixture.copyFileToProject("decls.pxi");
+        myFixture.enableInspections(
+                PyUnresolvedReferencesInspection.class,
+                PyArgumentListInspection.class,
+                PyTypeCheckerInspection.class);
+    }
+
+    public void testHighlightTypicalModule() throws Exception {
+        String text = typicalModule();
+        assertWithinBaseline("highlight.typical10k", new PerformanceBaselines.MeasuredOperation() {
+            @Override
+            public void prepare() {
+                myFixture.configureByText("typical.pyx", text);
+            }
+
+            @Override
+            public void run() {
+                myFixture.doHighlighting();
+            }
+        });
+    }
+
+    public void testReformatTypicalModule() throws Exception {
+        String text = typicalModule();
+        assertWithinBaseline("reformat.typical10k", new PerformanceBaselines.MeasuredOperation() {
+            @Override
+            public void prepare() {
+                myFixture.configureByText("typical.pyx", text);
+            }
+
+            @Override
+            public void run() {
+                WriteCommandAction.runWriteCommandAction(getProject(), () ->
+                        CodeStyleManager.getInstance(getProject()).reformat(myFixture.getFile()));
+            }
+        });
+    }
+
+    public void testHighlightPurePythonModule() throws Exception {
+        String text = load("pure_python.py").repeat(50);
+        assertWithinBaseline("highlight.purePython", new PerformanceBaselines.MeasuredOperation() {
+            @Override
+            public void prepare() {
+                myFixture.configureByText("pure_python.py", text);
+            }
+
+            @Override
+            public void run() {
+                myFixture.doHighlighting();
+            }
+        });
+    }
+
+    private void assertWithinBaseline(String name, PerformanceBaselines.MeasuredOperation operation) throws Exception {
+        String failure = PerformanceBaselines.check(name, PerformanceBaselines.measure(operation));
+        if (failure != null) {
+            fail(failure);
+        }
+    }
+
+    /**
+     * Builds a module of about 10k lines from the header and repeated, renamed copies of the
+     * unit fixture.
+     */
+    private String typicalModule() throws IOException {
+        String header = load("typical_header.pyx");
+        String unit = load("typical_unit.pyx");
+        int unitLines = StringUtil.countNewLines(unit);
+        StringBuilder text = new StringBuilder(header);
+        for (int i = 0, lines = StringUtil.countNewLines(header); lines < TYPICAL_MODULE_LINES; i++, lines += unitLines) {
+            text.append(unit.replace("__N__", Integer.toString(i)));
+        }
+        return text.toString();
+    }
+
+    private String load(String name) throws IOException {
+        return FileUtil.loadFile(new File(getTestDataPath(), name));
+    }
+}
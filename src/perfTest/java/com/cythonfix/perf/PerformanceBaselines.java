@@ -0,0 +1,127 @@
+package com.cythonfix.perf;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Measures wall time and allocation of an operation and compares them with stored baselines.
+ *
+ * Configured by the perfTest Gradle task through system properties:
+ * {@code cython.perf.baselines} (baseline file), {@code cython.perf.tolerance} (allowed
+ * relative regression) and {@code cython.perf.record} (rewrite baselines instead of checking).
+ */
+final class PerformanceBaselines {
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    record Measurement(double millis, double allocatedMb) {
+    }
+
+    /**
+     * An operation that is prepared outside the measured region and then measured.
+     */
+    interface MeasuredOperation {
+        void prepare() throws Exception;
+
+        void run() throws Exception;
+    }
+
+    private PerformanceBaselines() {
+    }
+
+    @NotNull
+    static Measurement measure(@NotNull MeasuredOperation operation) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            operation.prepare();
+            operation.run();
+        }
+        double[] millis = new double[MEASURED_RUNS];
+        double[] allocated = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            operation.prepare();
+            long allocatedBefore = totalAllocatedBytes();
+            long start = System.nanoTime();
+            operation.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+            allocated[i] = (totalAllocatedBytes() - allocatedBefore) / (1024.0 * 1024.0);
+        }
+        return new Measurement(median(millis), median(allocated));
+    }
+
+    /**
+     * Checks a measurement against its baseline, or stores it as the new baseline in record
+     * mode. Returns a failure message, or null if the measurement is within tolerance. A
+     * measurement without a baseline is recorded as its baseline and passes, so the first run
+     * on a machine seeds the file and later runs are checked against it.
+     */
+    @Nullable
+    static synchronized String check(@NotNull String name, @NotNull Measurement measurement) throws IOException {
+        Path file = Path.of(System.getProperty("cython.perf.baselines", "perf-baselines.properties"));
+        Properties baselines = load(file);
+
+        double tolerance = Double.parseDouble(System.getProperty("cython.perf.tolerance", "0.25"));
+        String baselineMillis = baselines.getProperty(name + ".ms");
+        String baselineMb = baselines.getProperty(name + ".allocMb");
+        boolean record = Boolean.getBoolean("cython.perf.record");
+        if (record || baselineMillis == null || baselineMb == null) {
+            if (!record) {
+                System.out.printf(Locale.ROOT, "%s has no baseline; recording %.1f ms, %.1f MB allocated%n",
+                        name, measurement.millis(), measurement.allocatedMb());
+            }
+            baselines.setProperty(name + ".ms", String.format(Locale.ROOT, "%.1f", measurement.millis()));
+            baselines.setProperty(name + ".allocMb", String.format(Locale.ROOT, "%.1f", measurement.allocatedMb()));
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                baselines.store(writer, "Recorded by perfTest");
+            }
+            return null;
+        }
+
+        StringBuilder failures = new StringBuilder();
+        if (measurement.millis() > Double.parseDouble(baselineMillis) * (1 + tolerance)) {
+            failures.append(String.format(Locale.ROOT, "%s took %.1f ms, baseline %s ms (+%.0f%% allowed). ",
+                    name, measurement.millis(), baselineMillis, tolerance * 100));
+        }
+        if (measurement.allocatedMb() > Double.parseDouble(baselineMb) * (1 + tolerance)) {
+            failures.append(String.format(Locale.ROOT, "%s allocated %.1f MB, baseline %s MB (+%.0f%% allowed). ",
+                    name, measurement.allocatedMb(), baselineMb, tolerance * 100));
+        }
+        return failures.isEmpty() ? null : failures.toString().trim();
+    }
+
+    @NotNull
+    private static Properties load(@NotNull Path file) throws IOException {
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Returns the bytes allocated by all threads since JVM start, including threads that have
+     * terminated, so pooled workers that die during a run still count.
+     */
+    private static long totalAllocatedBytes() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getTotalThreadAllocatedBytes();
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
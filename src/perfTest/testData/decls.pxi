@@ -0,0 +1,18 @@
+# Shared declarations included by the performance fixtures
+
+ctypedef double real_t
+ctypedef Py_ssize_t index_t
+
+ctypedef fused number_t:
+    int
+    long
+    float
+    double
+
+cdef struct Point:
+    double x
+    double y
+
+cdef struct Segment:
+    Point start
+    Point end
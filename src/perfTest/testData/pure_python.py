@@ -0,0 +1,40 @@
+"""Pure-Python module used to check that the plugin adds no overhead outside Cython files."""
+
+import math
+from dataclasses import dataclass, field
+
+
+@dataclass
+class Series:
+    name: str
+    values: list = field(default_factory=list)
+
+    def push(self, value):
+        self.values.append(value)
+
+    def mean(self):
+        if not self.values:
+            return 0.0
+        return sum(self.values) / len(self.values)
+
+    def stddev(self):
+        m = self.mean()
+        return math.sqrt(sum((v - m) ** 2 for v in self.values) / max(len(self.values), 1))
+
+
+def smooth(signal, alpha=0.5):
+    out = []
+    previous = None
+    for value in signal:
+        previous = value if previous is None else alpha * value + (1 - alpha) * previous
+        out.append(previous)
+    return out
+
+
+def histogram(values, bins=10):
+    low, high = min(values), max(values)
+    width = (high - low) / bins or 1.0
+    counts = [0] * bins
+    for value in values:
+        counts[min(int((value - low) / width), bins - 1)] += 1
+    return counts
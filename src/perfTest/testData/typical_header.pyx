@@ -0,0 +1,21 @@
+# cython: language_level=3
+"""Numeric kernels used as a highlighting performance fixture."""
+
+from libc.math cimport sqrt, fabs, exp
+from libc.stdlib cimport malloc, free
+from libc.string cimport memcpy
+
+cimport cython
+cimport numpy as cnp
+import numpy as np
+
+include "decls.pxi"
+
+cnp.import_array()
+
+
+cdef extern from "qhull_ra.h" nogil:
+    ctypedef struct qhT:
+        pass
+    int qh_new_qhull(qhT *, int, int, double *, bint, char *, void *, void *)
+    void qh_freeqhull(qhT *, bint)
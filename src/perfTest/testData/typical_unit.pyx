@@ -0,0 +1,76 @@
+
+
+cdef class Accumulator__N__:
+    """Running statistics over a stream of samples."""
+    cdef double *buffer
+    cdef Py_ssize_t size
+    cdef Py_ssize_t count
+    cdef public double total
+
+    def __cinit__(self, Py_ssize_t size):
+        self.buffer = <double *> malloc(size * sizeof(double))
+        if self.buffer == NULL:
+            raise MemoryError()
+        self.size = size
+        self.count = 0
+        self.total = 0
+
+    def __dealloc__(self):
+        free(self.buffer)
+
+    cpdef void push(self, double value):
+        """Append one sample, overwriting the oldest one when full."""
+        self.buffer[self.count % self.size] = value
+        self.count += 1
+        self.total += value
+
+    cpdef double mean(self):
+        if self.count == 0:
+            return 0.0
+        return self.total / min(self.count, self.size)
+
+
+@cython.boundscheck(False)
+@cython.wraparound(False)
+cdef double norm__N__(const double[::1] values) nogil:
+    """Euclidean norm of a contiguous vector."""
+    cdef Py_ssize_t i
+    cdef double acc = 0
+    for i in range(values.shape[0]):
+        acc += values[i] * values[i]
+    return sqrt(acc)
+
+
+cdef number_t clip__N__(number_t value, number_t low, number_t high) nogil:
+    if value < low:
+        return low
+    if value > high:
+        return high
+    return value
+
+
+cdef void copy_points__N__(Point *dst, const Point *src, index_t n) nogil:
+    memcpy(dst, src, n * sizeof(Point))
+
+
+cdef real_t segment_length__N__(Segment *segment) nogil:
+    cdef real_t dx = segment.end.x - segment.start.x
+    cdef real_t dy = segment.end.y - segment.start.y
+    return sqrt(dx * dx + dy * dy)
+
+
+def smooth__N__(cnp.ndarray[cnp.float64_t, ndim=1] signal, double alpha=0.5):
+    """Exponential smoothing of a 1-D signal."""
+    cdef Py_ssize_t i, n = signal.shape[0]
+    cdef cnp.ndarray[cnp.float64_t, ndim=1] out = np.empty(n)
+    cdef double[:, ::1] scratch = np.zeros((2, n))
+    if n == 0:
+        return out
+    out[0] = signal[0]
+    for i in range(1, n):
+        out[i] = alpha * signal[i] + (1 - alpha) * out[i - 1]
+        scratch[0, i] = fabs(out[i] - signal[i])
+        scratch[1, i] = exp(-scratch[0, i])
+    acc = Accumulator__N__(16)
+    acc.push(norm__N__(out))
+    return out